@@ -23,6 +23,7 @@ export const AuthProvider = ({ children }) => {
 
             // Store JWT and user data
             localStorage.setItem('jwt', userData.jwt);
+            localStorage.setItem('refreshToken', userData.refreshToken);
             localStorage.setItem('user', JSON.stringify(userData));
             setUser(userData);
 
@@ -48,7 +49,12 @@ export const AuthProvider = ({ children }) => {
     };
 
     const logout = () => {
+        const refreshToken = localStorage.getItem('refreshToken');
+        if (refreshToken) {
+            authAPI.logout(refreshToken).catch(() => {});
+        }
         localStorage.removeItem('jwt');
+        localStorage.removeItem('refreshToken');
         localStorage.removeItem('user');
         setUser(null);
     };
@@ -1,13 +1,18 @@
 import { useState, useEffect } from 'react';
-import { adminAPI } from '../services/api';
+import { adminAPI, rbacAPI } from '../services/api';
 import api from '../services/api';
 
+const PAGE_SIZE = 50;
+
 const AdminPanel = () => {
     const [activeTab, setActiveTab] = useState('approved');
     const [users, setUsers] = useState([]);
     const [pendingUsers, setPendingUsers] = useState([]);
+    const [usersCursor, setUsersCursor] = useState(null);
+    const [pendingCursor, setPendingCursor] = useState(null);
     const [roles, setRoles] = useState([]);
     const [departments, setDepartments] = useState([]);
+    const [stats, setStats] = useState(null);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
     const [success, setSuccess] = useState('');
@@ -23,14 +28,18 @@ const AdminPanel = () => {
     const fetchData = async () => {
         try {
             setLoading(true);
-            const [usersRes, pendingRes, rolesRes, deptRes] = await Promise.all([
-                adminAPI.getUsers(),
-                api.get('/admin/getpendingusers'),
+            const [usersRes, pendingRes, rolesRes, deptRes, statsRes] = await Promise.all([
+                adminAPI.getUsers({ limit: PAGE_SIZE }),
+                adminAPI.getPendingUsers({ limit: PAGE_SIZE }),
                 api.get('/admin/getroles'),
-                adminAPI.getDepartments()
+                adminAPI.getDepartments(),
+                rbacAPI.getDirectoryStats()
             ]);
-            setUsers(usersRes.data);
-            setPendingUsers(pendingRes.data);
+            setStats(statsRes.data);
+            setUsers(usersRes.data.items);
+            setUsersCursor(usersRes.data.nextCursor);
+            setPendingUsers(pendingRes.data.items);
+            setPendingCursor(pendingRes.data.nextCursor);
             setRoles([...new Set(rolesRes.data)]);
             setDepartments(Array.from(deptRes.data));
             setError('');
@@ -41,12 +50,45 @@ const AdminPanel = () => {
         }
     };
 
+    // tiles come from the server's counters, not from the length of the loaded pages
+    const fetchStats = async () => {
+        try {
+            const res = await rbacAPI.getDirectoryStats();
+            setStats(res.data);
+        } catch (err) {
+            setError('Failed to fetch counts: ' + (err.response?.data?.message || err.message));
+        }
+    };
+
+    const count = (status) => stats?.byStatus?.[status] ?? 0;
+
+    const loadMoreUsers = async () => {
+        try {
+            const res = await adminAPI.getUsers({ limit: PAGE_SIZE, cursor: usersCursor });
+            setUsers([...users, ...res.data.items]);
+            setUsersCursor(res.data.nextCursor);
+        } catch (err) {
+            setError('Failed to fetch users: ' + (err.response?.data?.message || err.message));
+        }
+    };
+
+    const loadMorePending = async () => {
+        try {
+            const res = await adminAPI.getPendingUsers({ limit: PAGE_SIZE, cursor: pendingCursor });
+            setPendingUsers([...pendingUsers, ...res.data.items]);
+            setPendingCursor(res.data.nextCursor);
+        } catch (err) {
+            setError('Failed to fetch pending users: ' + (err.response?.data?.message || err.message));
+        }
+    };
+
     const handleDelete = async (username) => {
         try {
             await adminAPI.deleteUser(username);
             setUsers(users.filter(u => u.username !== username));
             setSuccess(`User "${username}" deleted successfully`);
             setDeleteConfirm(null);
+            fetchStats();
             setTimeout(() => setSuccess(''), 3000);
         } catch (err) {
             setError('Failed to delete user: ' + (err.response?.data?.message || err.message));
@@ -77,6 +119,7 @@ const AdminPanel = () => {
             await api.post(`/admin/reject/${username}`);
             setPendingUsers(pendingUsers.filter(u => u.username !== username));
             setSuccess(`User "${username}" rejected`);
+            fetchStats();
             setTimeout(() => setSuccess(''), 3000);
         } catch (err) {
             setError('Failed to reject user: ' + (err.response?.data?.message || err.message));
@@ -142,15 +185,26 @@ const AdminPanel = () => {
 
             <div className="stats-bar">
                 <div className="stat-item">
-                    <span className="stat-number">{users.length}</span>
+                    <span className="stat-number">{stats?.total ?? 0}</span>
+                    <span className="stat-text">Total Users</span>
+                </div>
+                <div className="stat-item">
+                    <span className="stat-number">{count('ACTIVE')}</span>
                     <span className="stat-text">Active Users</span>
                 </div>
                 <div className="stat-item">
-                    <span className="stat-number" style={{ color: pendingUsers.length > 0 ? '#f59e0b' : 'inherit' }}>
-                        {pendingUsers.length}
+                    <span className="stat-number" style={{ color: count('PENDING') > 0 ? '#f59e0b' : 'inherit' }}>
+                        {count('PENDING')}
                     </span>
                     <span className="stat-text">Pending Approval</span>
                 </div>
+                <div className="stat-item">
+                    <span className="stat-number">{Object.keys(stats?.byRole ?? {}).length}</span>
+                    <span className="stat-text">
+                        Roles in use{stats?.byRole && ': ' + Object.entries(stats.byRole)
+                            .map(([role, n]) => `${role} ${n}`).join(' · ')}
+                    </span>
+                </div>
             </div>
 
             {/* Tabs */}
@@ -159,13 +213,13 @@ const AdminPanel = () => {
                     className={`tab ${activeTab === 'pending' ? 'active' : ''}`}
                     onClick={() => setActiveTab('pending')}
                 >
-                    ⏳ Pending ({pendingUsers.length})
+                    ⏳ Pending ({count('PENDING')})
                 </button>
                 <button
                     className={`tab ${activeTab === 'approved' ? 'active' : ''}`}
                     onClick={() => setActiveTab('approved')}
                 >
-                    ✅ Active Users ({users.length})
+                    ✅ Active Users ({count('ACTIVE')})
                 </button>
             </div>
 
@@ -224,6 +278,11 @@ const AdminPanel = () => {
                             )}
                         </tbody>
                     </table>
+                    {pendingCursor && (
+                        <button onClick={loadMorePending} className="btn btn-secondary">
+                            Load more
+                        </button>
+                    )}
                 </div>
             )}
 
@@ -299,6 +358,11 @@ const AdminPanel = () => {
                             )}
                         </tbody>
                     </table>
+                    {usersCursor && (
+                        <button onClick={loadMoreUsers} className="btn btn-secondary">
+                            Load more
+                        </button>
+                    )}
                 </div>
             )}
 
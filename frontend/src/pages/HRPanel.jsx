@@ -1,10 +1,14 @@
 import { useState, useEffect } from 'react';
 import { useAuth } from '../context/AuthContext';
-import api from '../services/api';
+import api, { rbacAPI } from '../services/api';
+
+const PAGE_SIZE = 50;
 
 const HRPanel = () => {
     const { user } = useAuth();
     const [employees, setEmployees] = useState([]);
+    const [employeesCursor, setEmployeesCursor] = useState(null);
+    const [stats, setStats] = useState(null);
     const [timecards, setTimecards] = useState('');
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
@@ -16,11 +20,14 @@ const HRPanel = () => {
     const fetchData = async () => {
         try {
             setLoading(true);
-            const [empRes, timeRes] = await Promise.all([
-                api.get('/getemployeerecords'),
-                api.get('/timecards')
+            const [empRes, timeRes, statsRes] = await Promise.all([
+                rbacAPI.getEmployeeRecords({ limit: PAGE_SIZE }),
+                api.get('/timecards'),
+                rbacAPI.getDirectoryStats()
             ]);
-            setEmployees(empRes.data);
+            setStats(statsRes.data);
+            setEmployees(empRes.data.items);
+            setEmployeesCursor(empRes.data.nextCursor);
             setTimecards(timeRes.data);
             setError('');
         } catch (err) {
@@ -30,6 +37,16 @@ const HRPanel = () => {
         }
     };
 
+    const loadMore = async () => {
+        try {
+            const res = await rbacAPI.getEmployeeRecords({ limit: PAGE_SIZE, cursor: employeesCursor });
+            setEmployees([...employees, ...res.data.items]);
+            setEmployeesCursor(res.data.nextCursor);
+        } catch (err) {
+            setError('Failed to fetch data: ' + (err.response?.data?.message || err.message));
+        }
+    };
+
     const getRolesList = (roles) => {
         if (!roles) return [];
         return roles.map(r => r.authority?.replace('ROLE_', '') || r);
@@ -72,9 +89,10 @@ const HRPanel = () => {
                 </div>
 
                 <div className="panel-card">
-                    <h3>👤 Total Employees</h3>
+                    <h3>👤 Active Employees</h3>
                     <div className="card-content">
-                        <p className="stat-number">{employees.length}</p>
+                        <p className="stat-number">{stats?.byStatus?.ACTIVE ?? 0}</p>
+                        <p className="stat-text">{stats?.byStatus?.PENDING ?? 0} awaiting approval</p>
                     </div>
                 </div>
             </div>
@@ -115,6 +133,11 @@ const HRPanel = () => {
                             ))}
                         </tbody>
                     </table>
+                    {employeesCursor && (
+                        <button onClick={loadMore} className="btn btn-secondary">
+                            Load more
+                        </button>
+                    )}
                 </div>
             </div>
         </div>
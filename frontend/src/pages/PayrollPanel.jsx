@@ -1,8 +1,12 @@
 import { useState, useEffect } from 'react';
-import api from '../services/api';
+import api, { rbacAPI } from '../services/api';
+
+const PAGE_SIZE = 50;
 
 const PayrollPanel = () => {
     const [employees, setEmployees] = useState([]);
+    const [employeesCursor, setEmployeesCursor] = useState(null);
+    const [stats, setStats] = useState(null);
     const [timecards, setTimecards] = useState('');
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
@@ -14,11 +18,14 @@ const PayrollPanel = () => {
     const fetchData = async () => {
         try {
             setLoading(true);
-            const [empRes, timeRes] = await Promise.all([
-                api.get('/getemployeerecords'),
-                api.get('/timecards')
+            const [empRes, timeRes, statsRes] = await Promise.all([
+                rbacAPI.getEmployeeRecords({ limit: PAGE_SIZE }),
+                api.get('/timecards'),
+                rbacAPI.getDirectoryStats()
             ]);
-            setEmployees(empRes.data);
+            setStats(statsRes.data);
+            setEmployees(empRes.data.items);
+            setEmployeesCursor(empRes.data.nextCursor);
             setTimecards(timeRes.data);
             setError('');
         } catch (err) {
@@ -28,6 +35,16 @@ const PayrollPanel = () => {
         }
     };
 
+    const loadMore = async () => {
+        try {
+            const res = await rbacAPI.getEmployeeRecords({ limit: PAGE_SIZE, cursor: employeesCursor });
+            setEmployees([...employees, ...res.data.items]);
+            setEmployeesCursor(res.data.nextCursor);
+        } catch (err) {
+            setError('Failed to fetch data: ' + (err.response?.data?.message || err.message));
+        }
+    };
+
     const getRolesList = (roles) => {
         if (!roles) return [];
         return roles.map(r => r.authority?.replace('ROLE_', '') || r);
@@ -70,9 +87,10 @@ const PayrollPanel = () => {
                 </div>
 
                 <div className="panel-card">
-                    <h3>👤 Employees</h3>
+                    <h3>👤 Active Employees</h3>
                     <div className="card-content">
-                        <p className="stat-number">{employees.length}</p>
+                        <p className="stat-number">{stats?.byStatus?.ACTIVE ?? 0}</p>
+                        <p className="stat-text">{stats?.byStatus?.PENDING ?? 0} awaiting approval</p>
                     </div>
                 </div>
 
@@ -124,6 +142,11 @@ const PayrollPanel = () => {
                             ))}
                         </tbody>
                     </table>
+                    {employeesCursor && (
+                        <button onClick={loadMore} className="btn btn-secondary">
+                            Load more
+                        </button>
+                    )}
                 </div>
             </div>
         </div>
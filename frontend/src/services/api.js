@@ -21,14 +21,50 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
-// Response interceptor to handle auth errors
+const clearSession = () => {
+  localStorage.removeItem('jwt');
+  localStorage.removeItem('refreshToken');
+  localStorage.removeItem('user');
+  window.location.href = '/login';
+};
+
+// Refresh tokens are single use, so concurrent 401s share one refresh call
+let refreshing = null;
+
+const refreshAccessToken = () => {
+  if (!refreshing) {
+    refreshing = axios
+      .post(`${API_BASE_URL}/auth/refresh`, { refreshToken: localStorage.getItem('refreshToken') })
+      .then((response) => {
+        localStorage.setItem('jwt', response.data.jwt);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.jwt;
+      })
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+};
+
+// Response interceptor: renew an expired access token once, then give up
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
-    if (error.response?.status === 401 && !error.config.url.includes('/auth/loginb')) {
-      localStorage.removeItem('jwt');
-      localStorage.removeItem('user');
-      window.location.href = '/login';
+  async (error) => {
+    const original = error.config;
+    if (error.response?.status === 401 && !original.url.includes('/auth/')) {
+      if (!original._retried && localStorage.getItem('refreshToken')) {
+        original._retried = true;
+        try {
+          const jwt = await refreshAccessToken();
+          original.headers.Authorization = `Bearer ${jwt}`;
+          return api(original);
+        } catch (refreshError) {
+          clearSession();
+          return Promise.reject(refreshError);
+        }
+      }
+      clearSession();
     }
     return Promise.reject(error);
   }
@@ -39,11 +75,14 @@ export const authAPI = {
   login: (username, password) => api.post('/auth/loginb', { username, password }),
   register: (username, password, email, department) => api.post('/auth/registerb', { username, password, email, department }),
   getDepartments: () => api.get('/auth/departments'),
+  logout: (refreshToken) => api.post('/auth/logout', { refreshToken }),
 };
 
 // Admin API
 export const adminAPI = {
-  getUsers: () => api.get('/admin/getusers'),
+  // list endpoints return { items, nextCursor }; pass nextCursor back as { cursor } for the next page
+  getUsers: (params) => api.get('/admin/getusers', { params }),
+  getPendingUsers: (params) => api.get('/admin/getpendingusers', { params }),
   getUserByName: (uname) => api.get(`/admin/getuser/${uname}`),
   deleteUser: (uname) => api.delete(`/admin/delete/${uname}`),
   updateUser: (uname, userData) => api.put(`/admin/update/${uname}`, userData),
@@ -52,10 +91,12 @@ export const adminAPI = {
 
 // RBAC API
 export const rbacAPI = {
-  getEmployeeRecords: () => api.get('/getemployeerecords'),
+  getEmployeeRecords: (params) => api.get('/getemployeerecords', { params }),
   getCustomerRecords: () => api.get('/getcustomerrecords'),
   getEmailRecords: () => api.get('/getemailrecords'),
   getTimeCards: () => api.get('/timecards'),
+  // headcounts { total, byStatus, byDepartment, byRole } for the dashboard tiles; the lists are for tables only
+  getDirectoryStats: () => api.get('/directorystats'),
 };
 
 export default api;
@@ -2,8 +2,10 @@ package com.shivu.userapplication;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class UserApplication {
 
 	public static void main(String[] args) {
@@ -11,6 +13,5 @@ public class UserApplication {
 	}
 
 	// CommandLineRunner disabled - using persistent MySQL database
-	// Data initialization is not needed on every startup
-	// Use RBACService.initialize() only for fresh database setup
+	// Built-in roles, departments and users are seeded by RBACService once per seed version
 }
@@ -0,0 +1,22 @@
+package com.shivu.userapplication.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.shivu.userapplication.model.RoleBit;
+
+/*
+ * Grants access when the caller holds any of the given roles. Equivalent to
+ * @PreAuthorize("hasAnyRole(...)") but checked with one AND against the
+ * token's role mask instead of a SpEL evaluation.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresRoles {
+
+    RoleBit[] value();
+}
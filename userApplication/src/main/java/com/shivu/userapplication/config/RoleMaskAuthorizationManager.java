@@ -0,0 +1,61 @@
+package com.shivu.userapplication.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.shivu.userapplication.model.RoleBit;
+
+/*
+ * Decides @RequiresRoles with a bitwise AND. The required mask is resolved once
+ * per method; the caller's mask comes from the rmask claim, or from the
+ * authorities for non-JWT authentications and tokens issued without it.
+ */
+public class RoleMaskAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    public static final String CLAIM = "rmask";
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Map<Method, Long> requiredMasks = new ConcurrentHashMap<>();
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        long required = requiredMasks.computeIfAbsent(invocation.getMethod(),
+                method -> requiredMask(method, invocation.getThis()));
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated()) {
+            return DENIED;
+        }
+        return (roleMask(auth) & required) != 0 ? GRANTED : DENIED;
+    }
+
+    private static long requiredMask(Method method, Object target) {
+        RequiresRoles annotation = AnnotatedElementUtils.findMergedAnnotation(method, RequiresRoles.class);
+        if (annotation == null && target != null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(target.getClass(), RequiresRoles.class);
+        }
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), RequiresRoles.class);
+        }
+        return annotation == null ? 0 : RoleBit.maskOf(annotation.value());
+    }
+
+    public static long roleMask(Authentication auth) {
+        if (auth instanceof JwtAuthenticationToken jwtAuth
+                && jwtAuth.getToken().getClaims().get(CLAIM) instanceof Number mask) {
+            return mask.longValue();
+        }
+        return RoleBit.maskOf(auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+}
@@ -1,20 +1,36 @@
 package com.shivu.userapplication.config;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.Pointcuts;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
@@ -25,15 +41,14 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
-import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import com.shivu.userapplication.service.DepartmentService;
 import com.shivu.userapplication.service.RBACService;
-import com.shivu.userapplication.utils.RSAKeyProperties;
+import com.shivu.userapplication.service.VerifiedTokenCache;
+import com.shivu.userapplication.utils.BCryptStrengthCalibrator;
+import com.shivu.userapplication.utils.BoundedPasswordEncoder;
+import com.shivu.userapplication.utils.JwtSigningKeys;
 
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
@@ -44,25 +59,57 @@ public class SecurityConfiguration {
 
     // RBACService removed to avoid circular dependency with PasswordEncoder
 
-    private final RSAKeyProperties keys;
+    private final JwtSigningKeys keys;
 
-    public SecurityConfiguration(RSAKeyProperties keys) {
+    @Autowired
+    VerifiedTokenCache tokenCache;
+
+    public SecurityConfiguration(JwtSigningKeys keys) {
         this.keys = keys;
     }
 
+    // BCrypt runs on its own bounded pool so a login flood cannot take every core.
+    // strength=0 measures this machine at startup and picks the highest cost within target-millis;
+    // the chosen cost and the measurement show up in /admin/stats/hashing.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${userapp.hashing.threads:0}") int threads,
+            @Value("${userapp.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${userapp.bcrypt.strength:10}") int strength,
+            @Value("${userapp.bcrypt.target-millis:250}") long targetMillis) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        Map<String, Object> settings = new LinkedHashMap<>();
+        if (strength > 0) {
+            settings.put("strength", strength);
+            settings.put("calibrated", false);
+        } else {
+            settings.putAll(BCryptStrengthCalibrator.calibrate(targetMillis).toMap());
+        }
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder((int) settings.get("strength")), poolSize,
+                queueCapacity, settings);
     }
 
     @Bean
-    public AuthenticationManager authManager(UserDetailsService detailsService) {
+    public AuthenticationManager authManager(UserDetailsService detailsService, PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider();
         daoProvider.setUserDetailsService(detailsService);
-        daoProvider.setPasswordEncoder(passwordEncoder());
+        daoProvider.setPasswordEncoder(passwordEncoder);
+        // hashes below the configured cost are re-encoded after a successful login
+        if (detailsService instanceof UserDetailsPasswordService passwordService) {
+            daoProvider.setUserDetailsPasswordService(passwordService);
+        }
         return new ProviderManager(daoProvider);
     }
 
+    // @RequiresRoles: a bitwise check against the token's role mask instead of SpEL
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requiresRolesAuthorization() {
+        return new AuthorizationManagerBeforeMethodInterceptor(
+                Pointcuts.union(AnnotationMatchingPointcut.forMethodAnnotation(RequiresRoles.class),
+                        AnnotationMatchingPointcut.forClassAnnotation(RequiresRoles.class)),
+                new RoleMaskAuthorizationManager());
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -74,10 +121,12 @@ public class SecurityConfiguration {
                     auth.requestMatchers("resetsuccess").permitAll();
                     auth.requestMatchers("/auth/***").permitAll();
                     auth.requestMatchers("/auth/loginb").permitAll();
+                    auth.requestMatchers("/auth/refresh", "/auth/logout").permitAll();
                     auth.requestMatchers("/ops/**").hasRole("ADMIN");
                     auth.requestMatchers("/home/**").permitAll();
                     auth.requestMatchers("/auth/welcome/**").permitAll();
                     auth.requestMatchers("/h2-console/**").permitAll();
+                    auth.requestMatchers("/.well-known/jwks.json").permitAll();
                     auth.requestMatchers("/admin/**").hasRole("ADMIN");
                     auth.requestMatchers("/payroll/**").hasRole("PAYROLL");
                     auth.requestMatchers("/user/**").hasAnyRole("ADMIN", "USER");
@@ -107,16 +156,29 @@ public class SecurityConfiguration {
         return source;
     }
 
+    // verified tokens are served from VerifiedTokenCache until they expire or the user changes
     @Bean
     public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(keys.getPublicKey()).build();
+        JwtDecoder decoder = signatureVerifyingJwtDecoder();
+        return token -> tokenCache.decode(token, decoder);
+    }
+
+    public JwtDecoder signatureVerifyingJwtDecoder() {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(keys.getVerificationKeySelector());
+        // claims are validated by Spring's JwtValidators, not by Nimbus
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        // tokens without exp were issued before access tokens became short-lived
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(),
+                new JwtClaimValidator<Instant>(JwtClaimNames.EXP, Objects::nonNull)));
+        return decoder;
     }
 
     @Bean
     public JwtEncoder jwtEncoder() {
-        JWK jwk = new RSAKey.Builder(keys.getPublicKey()).privateKey(keys.getPrivateKey()).build();
-        JWKSource<SecurityContext> jwks = new ImmutableJWKSet<>(new JWKSet(jwk));
-        return new NimbusJwtEncoder(jwks);
+        return new NimbusJwtEncoder(keys.getSigningKeySource());
     }
 
     @Bean
@@ -125,7 +187,8 @@ public class SecurityConfiguration {
         jwtGrantedAuthoritiesConverter.setAuthoritiesClaimName("roles");
         jwtGrantedAuthoritiesConverter.setAuthorityPrefix("ROLE_");
         JwtAuthenticationConverter jwtConverter = new JwtAuthenticationConverter();
-        jwtConverter.setJwtGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter);
+        jwtConverter.setJwtGrantedAuthoritiesConverter(
+                jwt -> tokenCache.authorities(jwt, jwtGrantedAuthoritiesConverter));
         return jwtConverter;
     }
 
@@ -3,14 +3,23 @@ package com.shivu.userapplication.controller;
 import com.shivu.userapplication.exception.ResourceNotFoundException;
 import com.shivu.userapplication.exception.UserNotFoundException;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,17 +27,36 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.shivu.userapplication.model.ApplicationUser;
 import com.shivu.userapplication.model.ApplicationUser.UserStatus;
-import com.shivu.userapplication.model.Department;
+import com.shivu.userapplication.model.BulkStatusReport;
+import com.shivu.userapplication.model.BulkStatusRequest;
 import com.shivu.userapplication.model.DisplayEmployees;
+import com.shivu.userapplication.model.ImportReport;
+import com.shivu.userapplication.model.KeysetPage;
+import com.shivu.userapplication.model.PurgeJob;
 import com.shivu.userapplication.model.Role;
-import com.shivu.userapplication.repository.DepartmentRepository;
-import com.shivu.userapplication.repository.RoleRepository;
+import com.shivu.userapplication.repository.PasswordResetTokenRepository;
 import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.service.BulkStatusService;
+import com.shivu.userapplication.service.DirectoryStatsService;
+import com.shivu.userapplication.service.MailOutboxService;
+import com.shivu.userapplication.service.PrincipalCache;
+import com.shivu.userapplication.service.ReferenceDataService;
+import com.shivu.userapplication.service.RefreshTokenService;
+import com.shivu.userapplication.service.UserExportService;
+import com.shivu.userapplication.service.UserImportService;
+import com.shivu.userapplication.service.UserPurgeService;
+import com.shivu.userapplication.utils.KeysetCursor;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/admin")
@@ -44,49 +72,92 @@ public class AdminController {
 	private UserRepository userRepository;
 
 	@Autowired
-	private DepartmentRepository departmentRepository;
+	private ReferenceDataService referenceDataService;
+
+	@Autowired
+	private BulkStatusService bulkStatusService;
+
+	@Autowired
+	private UserPurgeService userPurgeService;
 
 	@Autowired
-	private RoleRepository roleRepository;
+	private MailOutboxService mailOutboxService;
 
+	@Autowired
+	private PrincipalCache principalCache;
+
+	@Autowired
+	private DirectoryStatsService directoryStatsService;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private PasswordResetTokenRepository passwordResetTokenRepository;
+
+	@Autowired
+	private UserImportService userImportService;
+
+	@Autowired
+	private UserExportService userExportService;
+
+	@Value("${userapp.export.gzip:true}")
+	private boolean exportGzip;
+
+	// Listings are paged: ?limit=&sort=userId|username&direction=asc|desc, then ?cursor=<nextCursor>.
 	@GetMapping("/getusers")
-	public List<DisplayEmployees> getusers() {
-		List<ApplicationUser> users = userRepository.findByStatus(UserStatus.ACTIVE);
-		List<DisplayEmployees> showUsers = users.stream()
-				.map(displayUser -> new DisplayEmployees(displayUser.getUsername(),
-						displayUser.getDepartment().getDepartmentName(), displayUser.getAuthorities()))
-				.collect(Collectors.toList());
-		return showUsers;
+	public KeysetPage<DisplayEmployees> getusers(@RequestParam(name = "limit", required = false) Integer limit,
+			@RequestParam(name = "sort", required = false) String sort,
+			@RequestParam(name = "direction", required = false) String direction,
+			@RequestParam(name = "cursor", required = false) String cursor) {
+		return userRepository.findDisplayPage(UserStatus.ACTIVE, null, KeysetCursor.of(sort, direction, cursor), limit);
 	}
 
 	@GetMapping("/getpendingusers")
-	public List<Map<String, Object>> getPendingUsers() {
-		List<ApplicationUser> users = userRepository.findByStatus(UserStatus.PENDING);
-		return users.stream().map(u -> {
+	public KeysetPage<Map<String, Object>> getPendingUsers(
+			@RequestParam(name = "limit", required = false) Integer limit,
+			@RequestParam(name = "sort", required = false) String sort,
+			@RequestParam(name = "direction", required = false) String direction,
+			@RequestParam(name = "cursor", required = false) String cursor) {
+		KeysetPage<ApplicationUser> users = userRepository.findPage(UserStatus.PENDING, null,
+				KeysetCursor.of(sort, direction, cursor), limit);
+		return users.map(u -> {
 			Map<String, Object> map = new java.util.HashMap<>();
 			map.put("username", u.getUsername());
 			map.put("email", u.getEmail() != null ? u.getEmail() : "");
 			map.put("department", u.getDepartment() != null ? u.getDepartment().getDepartmentName() : "N/A");
 			map.put("status", u.getStatus().toString());
 			return map;
-		}).collect(Collectors.toList());
+		});
 	}
 
+	// transactional so the notice is queued only if the approval commits
 	@PostMapping("/approve/{uname}")
+	@Transactional
 	public Map<String, Object> approveUser(@PathVariable("uname") String username,
 			@RequestBody Map<String, List<String>> body) {
 		ApplicationUser user = userRepository.findByUsername(username)
 				.orElseThrow(() -> new UserNotFoundException("User not found: " + username));
+		// directory counters move from the stored row to what this approval writes
+		DirectoryStatsService.Entry before = directoryStatsService.find(username)
+				.orElseThrow(() -> new UserNotFoundException("User not found: " + username));
+		DirectoryStatsService.Entry after = before.withStatus(UserStatus.ACTIVE);
 
 		// Assign roles from request
 		List<String> roleNames = body.get("roles");
 		if (roleNames != null && !roleNames.isEmpty()) {
 			Set<Role> roles = new HashSet<>();
+			Set<String> assigned = new HashSet<>();
 			for (String roleName : roleNames) {
-				roleRepository.findFirstByAuthority(roleName).ifPresent(roles::add);
+				Role role = referenceDataService.roleFor(roleName);
+				if (role != null) {
+					roles.add(role);
+					assigned.add(role.getAuthority());
+				}
 			}
 			if (!roles.isEmpty()) {
 				user.setAuthorities(roles);
+				after = after.withRoles(assigned);
 			}
 		}
 
@@ -96,35 +167,99 @@ public class AdminController {
 						? body.get("department").get(0)
 						: null;
 		if (deptName != null) {
-			Department dept = departmentRepository.findFirstByDepartmentName(deptName).orElse(null);
-			if (dept == null) {
-				dept = new Department();
-				dept.setDepartmentName(deptName);
-				departmentRepository.save(dept);
-			}
-			user.setDepartment(dept);
+			user.setDepartment(referenceDataService.departmentFor(deptName));
+			after = after.withDepartment(deptName);
 		}
 
 		user.setStatus(UserStatus.ACTIVE);
 		userRepository.save(user);
+		principalCache.invalidate(username);
+		directoryStatsService.changed(before, after);
+		if (user.getEmail() != null) {
+			mailOutboxService.enqueueAll(List.of(MailOutboxService.approvalNotice(user.getEmail(), username)));
+		}
 
 		return Map.of("success", true, "message", "User approved successfully");
 	}
 
 	@PostMapping("/reject/{uname}")
+	@Transactional
 	public Map<String, Object> rejectUser(@PathVariable("uname") String username) {
 		ApplicationUser user = userRepository.findByUsername(username)
 				.orElseThrow(() -> new UserNotFoundException("User not found: " + username));
+		UserStatus previous = user.getStatus();
 		user.setStatus(UserStatus.REJECTED);
 		userRepository.save(user);
+		principalCache.invalidate(username);
+		directoryStatsService.statusChanged(previous, UserStatus.REJECTED, 1);
+		refreshTokenService.revokeAll(username);
+		if (user.getEmail() != null) {
+			mailOutboxService.enqueueAll(List.of(MailOutboxService.rejectionNotice(user.getEmail(), username)));
+		}
 		return Map.of("success", true, "message", "User rejected");
 	}
 
+	// {"usernames": [...]} or {"filter": {"department", "emailDomain"}} over pending users, plus optional
+	// "roles" and "department" to assign; one transaction, per-user outcomes in the report
+	@PostMapping("/approve")
+	public BulkStatusReport approveUsers(@RequestBody BulkStatusRequest body) {
+		return bulkStatusService.approve(body);
+	}
+
+	@PostMapping("/reject")
+	public BulkStatusReport rejectUsers(@RequestBody BulkStatusRequest body) {
+		return bulkStatusService.reject(body);
+	}
+
+	// CSV rows "username,password,email,department,roles" (roles ';'-separated) or one JSON object per line.
+	// The body is streamed; users are created ACTIVE.
+	@PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+	public ImportReport importUsers(HttpServletRequest request) throws IOException {
+		UserImportService.Format format = request.getContentType().startsWith("text/csv")
+				? UserImportService.Format.CSV
+				: UserImportService.Format.NDJSON;
+		return userImportService.importUsers(request.getInputStream(), format);
+	}
+
+	// Streams the directory straight off a DB cursor, so it works at any size; gzip if the client accepts it.
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportUsers(
+			@RequestParam(name = "format", defaultValue = "csv") String format,
+			@RequestParam(name = "status", required = false) UserStatus status,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		UserExportService.Format exportFormat;
+		MediaType contentType;
+		if (format.equalsIgnoreCase("csv")) {
+			exportFormat = UserExportService.Format.CSV;
+			contentType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+		} else if (format.equalsIgnoreCase("ndjson")) {
+			exportFormat = UserExportService.Format.NDJSON;
+			contentType = MediaType.parseMediaType("application/x-ndjson");
+		} else {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson");
+		}
+		boolean gzip = exportGzip && acceptEncoding != null && acceptEncoding.contains("gzip");
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(contentType)
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"users." + exportFormat.name().toLowerCase() + "\"");
+		if (gzip) {
+			response.header(HttpHeaders.CONTENT_ENCODING, "gzip").header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		}
+		return response.body(out -> {
+			if (gzip) {
+				GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+				userExportService.export(gzipOut, exportFormat, status);
+				gzipOut.finish();
+			} else {
+				userExportService.export(out, exportFormat, status);
+			}
+		});
+	}
+
 	@GetMapping("/getroles")
 	public List<String> getAllRoles() {
-		return roleRepository.findAll().stream()
-				.map(Role::getAuthority)
-				.collect(Collectors.toList());
+		return referenceDataService.roleNames();
 	}
 
 	public List<ApplicationUser> getUsers() {
@@ -134,51 +269,75 @@ public class AdminController {
 	}
 
 	@GetMapping("/getusers/{dept}")
-	public List<ApplicationUser> getUsersByDepartment(@PathVariable("dept") String department) {
-		ArrayList<ApplicationUser> users = userRepository.findAllByDepartmentName(department);
-		return users;
+	public KeysetPage<ApplicationUser> getUsersByDepartment(@PathVariable("dept") String department,
+			@RequestParam(name = "limit", required = false) Integer limit,
+			@RequestParam(name = "sort", required = false) String sort,
+			@RequestParam(name = "direction", required = false) String direction,
+			@RequestParam(name = "cursor", required = false) String cursor) {
+		return userRepository.findPageWithAuthorities(null, department, KeysetCursor.of(sort, direction, cursor),
+				limit);
 	}
 
 	@GetMapping("/getdepartments")
 	public Set<String> getDepartments() {
-		Set<String> departments = departmentRepository.findAll()
-				.stream().map(u -> u.getDepartmentName()).collect(Collectors.toUnmodifiableSet());
-		return departments;
+		return referenceDataService.departmentNames();
 	}
 
 	@GetMapping("/getuser/{uname}")
 	public ApplicationUser getuserById(@PathVariable("uname") String uname) {
 		String uName = uname;
-		Optional<ApplicationUser> user = userRepository.findByUsername(uName);
+		Optional<ApplicationUser> user = userRepository.findWithAuthoritiesByUsername(uName);
 		return user.orElseThrow(() -> new UserNotFoundException("user not found with username: " + uname));
 	}
 
 	@DeleteMapping("/delete/{uname}")
+	@Transactional
 	public Boolean deleteUserById(@PathVariable("uname") String uname) {
-		ApplicationUser user = userRepository.findByUsername(uname)
-				.orElseThrow(() -> new UserNotFoundException("no user with given username" + uname));
-		userRepository.deleteByUsername(uname);
+		// what the user counted for, read in the delete's transaction
+		Optional<DirectoryStatsService.Entry> entry = directoryStatsService.find(uname);
+		if (userRepository.deleteByUsername(uname) == 0) {
+			throw new UserNotFoundException("no user with given username" + uname);
+		}
+		entry.ifPresent(directoryStatsService::removed);
+		principalCache.invalidate(uname);
+		refreshTokenService.revokeAll(uname);
 		return true;
 	}
 
 	@DeleteMapping("/deleteall")
-	public Boolean deleteUsers() {
-		List<ApplicationUser> users = userRepository.findAll();
-		if (!users.isEmpty()) {
-			userRepository.deleteAll();
-			return true;
-		} else
+	public ResponseEntity<PurgeJob> deleteUsers() {
+		if (userRepository.count() == 0) {
 			throw new ResourceNotFoundException("No users record found to delete");
+		}
+		// runs in the background; poll /deleteall/status
+		return ResponseEntity.status(HttpStatus.ACCEPTED).body(userPurgeService.start());
+	}
+
+	@GetMapping("/deleteall/status")
+	public PurgeJob deleteUsersStatus() {
+		return userPurgeService.status();
+	}
+
+	@PostMapping("/deleteall/cancel")
+	public PurgeJob cancelDeleteUsers() {
+		return userPurgeService.cancel();
 	}
 
+	// transactional so the rename and the removal of the old name's reset links commit together
 	@PutMapping("/update/{uname}")
+	@Transactional
 	public ApplicationUser update(@PathVariable("uname") String userName, @RequestBody ApplicationUser user) {
-		ApplicationUser existingUser = userRepository.findByUsername(userName)
+		ApplicationUser existingUser = userRepository.findWithAuthoritiesByUsername(userName)
 				.orElseThrow(() -> new UserNotFoundException("User with username " + userName + " does not exist"));
 
 		if (user.getUsername() != null) {
 			existingUser.setUsername(user.getUsername());
 			userRepository.save(existingUser);
+			principalCache.invalidate(userName);
+			principalCache.invalidate(user.getUsername());
+			// sessions stay bound to the old name, which someone else may register later
+			refreshTokenService.revokeAll(userName);
+			passwordResetTokenRepository.deleteByUsername(userName);
 			return existingUser;
 		}
 		return existingUser;
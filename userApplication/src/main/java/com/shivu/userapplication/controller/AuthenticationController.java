@@ -3,23 +3,26 @@ package com.shivu.userapplication.controller;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import com.shivu.userapplication.exception.UserAlreadyExistsException;
 import com.shivu.userapplication.model.ApplicationUser;
 import com.shivu.userapplication.model.DisplayEmployees;
 import com.shivu.userapplication.model.LoginDTO;
 import com.shivu.userapplication.model.LoginResponse;
 import com.shivu.userapplication.model.LoginResponseDTO;
+import com.shivu.userapplication.model.RefreshTokenDTO;
 import com.shivu.userapplication.model.RegistrationDTO;
-import com.shivu.userapplication.repository.DepartmentRepository;
 import com.shivu.userapplication.repository.RoleRepository;
-import com.shivu.userapplication.repository.UserRepository;
 import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.RateLimiter;
+import com.shivu.userapplication.service.ReferenceDataService;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/auth")
@@ -33,35 +36,56 @@ public class AuthenticationController {
     RoleRepository roleRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    ReferenceDataService referenceDataService;
 
     @Autowired
-    DepartmentRepository departmentRepository;
+    private RateLimiter rateLimiter;
 
     @PostMapping("/loginb")
-    public LoginResponse loginUser(@RequestBody LoginDTO body) {
-        LoginResponseDTO user = authenticationService.loginUser(body.getUsername(), body.getPassword());
+    public LoginResponse loginUser(@RequestBody LoginDTO body, HttpServletRequest request) {
+        rateLimiter.checkFailures(RateLimiter.LOGIN, request, body.getUsername());
+        LoginResponseDTO user;
+        try {
+            user = authenticationService.loginUser(body.getUsername(), body.getPassword());
+        } catch (RuntimeException e) {
+            if (AuthenticationService.isBadCredentials(e)) {
+                rateLimiter.recordFailure(RateLimiter.LOGIN, body.getUsername());
+            }
+            throw e;
+        }
         LoginResponse loginResponse = new LoginResponse(user.getUser().getUsername(),
-                user.getUser().getDepartment().getDepartmentName(),
+                user.getUser().getDepartmentName(),
                 user.getUser().getAuthorities(),
-                user.getJwt());
-        System.out.println(user.getUser().getPassword());
+                user.getJwt(),
+                user.getRefreshToken());
         return loginResponse;
     }
 
+    @PostMapping("/refresh")
+    public LoginResponse refresh(@RequestBody RefreshTokenDTO body) {
+        LoginResponseDTO user = authenticationService.refresh(body.getRefreshToken());
+        return new LoginResponse(user.getUser().getUsername(),
+                user.getUser().getDepartmentName(),
+                user.getUser().getAuthorities(),
+                user.getJwt(),
+                user.getRefreshToken());
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenDTO body) {
+        authenticationService.logout(body.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/departments")
     public Set<String> getDepartments() {
-        return departmentRepository.findAll().stream()
-                .map(d -> d.getDepartmentName())
-                .collect(java.util.stream.Collectors.toSet());
+        return referenceDataService.departmentNames();
     }
 
     @PostMapping("/registerb")
-    public DisplayEmployees registerUser(@RequestBody RegistrationDTO body) {
-        if (userRepository.findByUsername(body.getUsername()).isPresent())
-            throw new UserAlreadyExistsException("UserName Already Taken,");
-        else if (!(userRepository.findByEmail(body.getEmail()) == null))
-            throw new UserAlreadyExistsException("Email ALready Taken.");
+    public DisplayEmployees registerUser(@RequestBody RegistrationDTO body, HttpServletRequest request) {
+        rateLimiter.check(RateLimiter.REGISTER, request, body.getUsername(), body.getEmail());
+        // duplicates surface as UserAlreadyExistsException from the unique indexes
         ApplicationUser user = authenticationService.registerUser(body.getUsername(), body.getPassword(),
                 body.getEmail(), body.getDepartment());
         DisplayEmployees displayUser = new DisplayEmployees(user.getUsername(),
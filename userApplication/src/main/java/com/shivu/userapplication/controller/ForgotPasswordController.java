@@ -1,6 +1,5 @@
 package com.shivu.userapplication.controller;
 
-import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Controller;
@@ -10,7 +9,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import com.shivu.userapplication.exception.UserNotFoundException;
 import com.shivu.userapplication.model.ApplicationUser;
 import com.shivu.userapplication.repository.UserRepository;
-import com.shivu.userapplication.service.UserService;
+import com.shivu.userapplication.service.PasswordResetService;
+import com.shivu.userapplication.service.RateLimiter;
 import com.shivu.userapplication.utils.UrlUtility;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,11 +19,14 @@ import jakarta.servlet.http.HttpServletRequest;
 public class ForgotPasswordController {
 
 	@Autowired
-	private UserService userService;
+	private PasswordResetService passwordResetService;
 
 	@Autowired
 	UserRepository userRepo;
 
+	@Autowired
+	private RateLimiter rateLimiter;
+
 	@GetMapping("/forgotpassword")
 	public String showForgotPasswordForm1() {
 		return "forgotpassword";
@@ -33,58 +36,26 @@ public class ForgotPasswordController {
 	public String processForgotPassword1(HttpServletRequest request, Model model)
 			throws Exception, UserNotFoundException {
 		String email = request.getParameter("email");
-		String token = UUID.randomUUID().toString();
+		rateLimiter.check(RateLimiter.FORGOT_PASSWORD, request, email);
 		try {
-			userService.updateResetPasswordToken(token, email);
-			String resetPasswordLink = UrlUtility.getSiteURL(request) + "/resetpassword?token=" + token;
-			System.out.println(resetPasswordLink);
-//            sendEmail(email, resetPasswordLink);
+			// delivered by MailDispatcher
+			passwordResetService.sendResetLink(email, UrlUtility.getSiteURL(request));
 			model.addAttribute("message", "We have sent a reset password link to your email. Please check.");
 		} catch (UserNotFoundException ex) {
 			model.addAttribute("error", ex.getMessage());
 		}
-//        catch ( UnsupportedEncodingException | MessagingException   e) {
-//        
-//        	model.addAttribute("error", "Error while sending email");
-//        }
 
 		return "forgotpassword";
 	}
 
-//    
-//    public void sendEmail(String recipientEmail, String link)
-//            throws MessagingException, UnsupportedEncodingException {
-//        MimeMessage message = mailSender.createMimeMessage();              
-//        MimeMessageHelper helper = new MimeMessageHelper(message);
-//       
-//        helper.setFrom(from, "forgot password support");
-//        helper.setTo(recipientEmail);
-//         
-//        String subject = "Here's the link to reset your password";
-//         
-//        String content = "<p>Hello,</p>"
-//                + "<p>You have requested to reset your password.</p>"
-//                + "<p>Click the link below to change your password:</p>"
-//                + "<p><a href=\"" + link + "\">Change my password</a></p>"
-//                + "<br>"
-//                + "<p>Ignore this email if you do remember your password, "
-//                + "or you have not made the request.</p>";
-//         
-//        helper.setSubject(subject);
-//         
-//        helper.setText(content, true);
-//         
-//        mailSender.send(message);
-//    }
-
 	@GetMapping("/resetpassword")
 	public String showResetPasswordForm(@Param(value = "token") String token, Model model) throws Exception {
-		ApplicationUser user = userService.getByResetPasswordToken(token);
+		ApplicationUser user = passwordResetService.findUser(token).orElse(null);
 		model.addAttribute("token", token);
 
 		if (user == null) {
-			model.addAttribute("message", "Invalid Token");
-			return "message";
+			model.addAttribute("error", "Invalid or expired reset link");
+			return "forgotpassword";
 		}
 
 		return "resetpassword";
@@ -94,17 +65,12 @@ public class ForgotPasswordController {
 	public String processResetPassword(HttpServletRequest request, Model model) throws Exception {
 		String token = request.getParameter("token");
 		String password = request.getParameter("password");
-		ApplicationUser user = userService.getByResetPasswordToken(token);
 //        model.addAttribute("title", "Reset your password");
 
-		model.addAttribute("message", "message");
-
-		if (user == null) {
-			model.addAttribute("message", "Invalid Token");
-
-			return "message";
+		if (!passwordResetService.resetPassword(token, password)) {
+			model.addAttribute("error", "Invalid or expired reset link");
+			return "forgotpassword";
 		} else {
-			userService.updatePassword(user, password);
 			model.addAttribute("message", "You have successfully changed your password.");
 			return "resetsuccess";
 		}
@@ -0,0 +1,22 @@
+package com.shivu.userapplication.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.shivu.userapplication.utils.JwtSigningKeys;
+
+@RestController
+public class JwksController {
+
+	@Autowired
+	private JwtSigningKeys keys;
+
+	// public halves of every key a token may currently be signed with
+	@GetMapping("/.well-known/jwks.json")
+	public Map<String, Object> getJwks() {
+		return keys.getPublicJwkSet();
+	}
+}
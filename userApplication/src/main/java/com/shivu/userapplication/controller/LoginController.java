@@ -9,6 +9,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import com.shivu.userapplication.model.LoginDTO;
 import com.shivu.userapplication.model.LoginResponseDTO;
 import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.RateLimiter;
+
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Controller
@@ -18,6 +21,9 @@ public class LoginController {
 	@Autowired
 	AuthenticationService authenticationService;
 
+	@Autowired
+	RateLimiter rateLimiter;
+
 	@GetMapping("/login")
 	public String showLoginForm(Model model) {
 		model.addAttribute("LoginForm", new LoginDTO());
@@ -26,9 +32,20 @@ public class LoginController {
 	}
 
 	@PostMapping("/login")
-	public String LoginUser(@ModelAttribute LoginDTO user, Model model, HttpServletResponse response) throws Exception {
+	public String LoginUser(@ModelAttribute LoginDTO user, Model model, HttpServletRequest request,
+			HttpServletResponse response) throws Exception {
+		rateLimiter.checkFailures(RateLimiter.LOGIN, request, user.getUsername());
 		model.addAttribute("LoginForm", new LoginDTO());
-		LoginResponseDTO resp = authenticationService.loginUser(user.getUsername(), user.getPassword());
+		LoginResponseDTO resp;
+		try {
+			// the page has nowhere to keep a refresh token, so none is issued
+			resp = authenticationService.loginUser(user.getUsername(), user.getPassword(), false);
+		} catch (RuntimeException e) {
+			if (AuthenticationService.isBadCredentials(e)) {
+				rateLimiter.recordFailure(RateLimiter.LOGIN, user.getUsername());
+			}
+			throw e;
+		}
 		if (resp.getJwt().equals(""))
 			return "redirect:/auth/login?error";
 		
@@ -1,22 +1,28 @@
 package com.shivu.userapplication.controller;
 
 import org.springframework.web.bind.annotation.RestController;
+import com.shivu.userapplication.config.RequiresRoles;
 import com.shivu.userapplication.exception.UserNotFoundException;
-import com.shivu.userapplication.model.ApplicationUser;
 import com.shivu.userapplication.model.DisplayEmployees;
+import com.shivu.userapplication.model.KeysetPage;
+import com.shivu.userapplication.model.RoleBit;
 import com.shivu.userapplication.repository.DepartmentRepository;
 import com.shivu.userapplication.repository.RoleRepository;
 import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.service.DirectoryStatsService;
+import com.shivu.userapplication.utils.KeysetCursor;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
 public class RBACController {
 
+    private static final List<String> NON_EMPLOYEE_ROLES = List.of("USER", "GENERAL");
+
     @Autowired
     UserRepository userRepository;
 
@@ -26,86 +32,90 @@ public class RBACController {
     @Autowired
     DepartmentRepository departmentRepository;
 
+    @Autowired
+    DirectoryStatsService directoryStatsService;
+
     @GetMapping("/hr")
-    @PreAuthorize("hasRole('HR')")
+    @RequiresRoles(RoleBit.HR)
     public String getHR() {
         return "HR level Access";
     }
 
     @GetMapping("/Payroll")
-    @PreAuthorize("hasRole('PAYROLL')")
+    @RequiresRoles(RoleBit.PAYROLL)
     public String getPayroll() {
         return "Payroll level Access";
     }
 
     @GetMapping("/finance")
-    @PreAuthorize("hasRole('FINANCE')")
+    @RequiresRoles(RoleBit.FINANCE)
     public String getFinance() {
         return "Finance level Access";
     }
 
     @GetMapping("/sales")
-    @PreAuthorize("hasRole('SALES')")
+    @RequiresRoles(RoleBit.SALES)
     public String getSales() {
         return "Sales level Access";
     }
 
     @GetMapping("/it")
-    @PreAuthorize("hasRole('SALES')")
+    @RequiresRoles(RoleBit.SALES)
     public String getIT() {
         return "IT level Access";
     }
 
     @GetMapping("/getemailrecords")
-    @PreAuthorize("hasRole('GENERAL')")
+    @RequiresRoles(RoleBit.GENERAL)
     public String getEmails() throws Exception {
         return "Email Records Access";
     }
 
     @GetMapping("/datacenter")
-    @PreAuthorize("hasRole('IT')")
+    @RequiresRoles(RoleBit.IT)
     public String getDataCenter() {
         return "Data Center Access";
     }
 
     @GetMapping("/getcustomerrecords")
-    @PreAuthorize("hasAnyRole('FINANCE','SALES')")
+    @RequiresRoles({ RoleBit.FINANCE, RoleBit.SALES })
     public String getCustomerRecords() {
         return "Customer Records Access";
     }
 
     @GetMapping("/SAP")
-    @PreAuthorize("hasRole('SALES')")
+    @RequiresRoles(RoleBit.SALES)
     public String getSapRecords() {
         return "SAP Access";
     }
 
     @GetMapping("/timecards")
-    @PreAuthorize("hasAnyRole('HR','PAYROLL')")
+    @RequiresRoles({ RoleBit.HR, RoleBit.PAYROLL })
     public String getTimeCards() {
         return "timecards";
     }
 
+    // dashboard headcounts by status, department and role, served from memory
+    // headcounts for the admin, HR and payroll dashboard tiles
+    @GetMapping("/directorystats")
+    @RequiresRoles({ RoleBit.ADMIN, RoleBit.HR, RoleBit.PAYROLL })
+    public Map<String, Object> getDirectoryStats() {
+        return directoryStatsService.counts();
+    }
+
     @GetMapping("/getemployeerecords")
-    @PreAuthorize("hasAnyRole('HR','PAYROLL')")
-    public List<DisplayEmployees> getEmployees() throws UserNotFoundException {
+    @RequiresRoles({ RoleBit.HR, RoleBit.PAYROLL })
+    public KeysetPage<DisplayEmployees> getEmployees(@RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "direction", required = false) String direction,
+            @RequestParam(name = "cursor", required = false) String cursor) throws UserNotFoundException {
         String userName = SecurityContextHolder.getContext().getAuthentication().getName();
         System.out.println(userName);
-        List<ApplicationUser> users = userRepository.findAll();
-
-        List<DisplayEmployees> showUsers = users.stream()
-                // Filter out users who ONLY have "USER" or "GENERAL" roles
-                // i.e. Include users who have at least one role that is NOT "USER" and NOT
-                // "GENERAL"
-                .filter(user -> user.getAuthorities().stream()
-                        .anyMatch(
-                                role -> !role.getAuthority().equals("USER") && !role.getAuthority().equals("GENERAL")))
-                .map(displayUser -> new DisplayEmployees(displayUser.getUsername(),
-                        displayUser.getDepartment().getDepartmentName(),
-                        displayUser.getAuthorities()))
-                .collect(Collectors.toList());
-
-        return showUsers;
+        // Filter out users who ONLY have "USER" or "GENERAL" roles
+        // i.e. Include users who have at least one role that is NOT "USER" and NOT
+        // "GENERAL"
+        return userRepository.findDisplayPageWithRoleOtherThan(NON_EMPLOYEE_ROLES,
+                KeysetCursor.of(sort, direction, cursor), limit);
     }
 
 }
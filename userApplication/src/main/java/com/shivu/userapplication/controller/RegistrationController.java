@@ -8,9 +8,12 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import com.shivu.userapplication.exception.UserAlreadyExistsException;
 import com.shivu.userapplication.model.RegistrationDTO;
-import com.shivu.userapplication.repository.UserRepository;
 import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.RateLimiter;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @Controller
 @RequestMapping("/auth/register")
@@ -20,7 +23,7 @@ public class RegistrationController {
   AuthenticationService authenticationService;
 
   @Autowired
-  UserRepository userRepository;
+  RateLimiter rateLimiter;
 
   @GetMapping
   public String showRegistrationForm(Model model) {
@@ -29,11 +32,16 @@ public class RegistrationController {
   }
 
   @PostMapping
-  public String registerUser(@ModelAttribute RegistrationDTO user, Model model) throws Exception {
+  public String registerUser(@ModelAttribute RegistrationDTO user, Model model, HttpServletRequest request)
+      throws Exception {
+    rateLimiter.check(RateLimiter.REGISTER, request, user.getUsername(), user.getEmail());
     model.addAttribute("RegistrationDTOform", new RegistrationDTO());
-    if (userRepository.findByUsername(user.getUsername()).isPresent())
+    try {
+      authenticationService.registerUser(user.getUsername(), user.getPassword(), user.getEmail(),
+          user.getDepartment());
+    } catch (UserAlreadyExistsException e) {
       return "redirect:/auth/register?userpresent";
-    authenticationService.registerUser(user.getUsername(), user.getPassword(), user.getEmail(), user.getDepartment());
+    }
 
     return "redirect:/auth/register?success";
   }
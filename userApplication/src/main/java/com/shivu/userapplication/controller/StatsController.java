@@ -0,0 +1,77 @@
+package com.shivu.userapplication.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.shivu.userapplication.service.DirectoryStatsService;
+import com.shivu.userapplication.service.MailDispatcher;
+import com.shivu.userapplication.service.PrincipalCache;
+import com.shivu.userapplication.service.RateLimiter;
+import com.shivu.userapplication.service.ReferenceDataService;
+import com.shivu.userapplication.service.VerifiedTokenCache;
+import com.shivu.userapplication.utils.BoundedPasswordEncoder;
+
+@RestController
+@RequestMapping("/admin/stats")
+public class StatsController {
+
+	@Autowired
+	private PrincipalCache principalCache;
+
+	@Autowired
+	private BoundedPasswordEncoder passwordEncoder;
+
+	@Autowired
+	private VerifiedTokenCache tokenCache;
+
+	@Autowired
+	private RateLimiter rateLimiter;
+
+	@Autowired
+	private ReferenceDataService referenceDataService;
+
+	@Autowired
+	private MailDispatcher mailDispatcher;
+
+	@Autowired
+	private DirectoryStatsService directoryStatsService;
+
+	@GetMapping("/principalcache")
+	public Map<String, Object> getPrincipalCacheStats() {
+		return principalCache.stats();
+	}
+
+	@GetMapping("/tokencache")
+	public Map<String, Object> getTokenCacheStats() {
+		return tokenCache.stats();
+	}
+
+	@GetMapping("/ratelimit")
+	public Map<String, Object> getRateLimitStats() {
+		return rateLimiter.stats();
+	}
+
+	@GetMapping("/referencedata")
+	public Map<String, Object> getReferenceDataStats() {
+		return referenceDataService.stats();
+	}
+
+	@GetMapping("/mail")
+	public Map<String, Object> getMailStats() {
+		return mailDispatcher.stats();
+	}
+
+	@GetMapping("/directory")
+	public Map<String, Object> getDirectoryStats() {
+		return directoryStatsService.stats();
+	}
+
+	@GetMapping("/hashing")
+	public Map<String, Object> getHashingStats() {
+		return passwordEncoder.stats();
+	}
+}
@@ -1,9 +1,32 @@
 package com.shivu.userapplication.exception;
 
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
 public class UserAlreadyExistsException  extends RuntimeException{
 
     private static final long serialVersionUID = 1L;
 
+    // maps a violation of the users unique constraints; null for any other integrity error
+    public static UserAlreadyExistsException fromConstraintViolation(DataIntegrityViolationException e) {
+        String constraint = null;
+        for (Throwable cause = e; cause != null && constraint == null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                constraint = violation.getConstraintName();
+            }
+        }
+        String detail = (constraint != null ? constraint : String.valueOf(e.getMostSpecificCause().getMessage()))
+                .toLowerCase(Locale.ROOT);
+        if (detail.contains("uk_users_email")) {
+            return new UserAlreadyExistsException("Email ALready Taken.");
+        } else if (detail.contains("uk_users_username")) {
+            return new UserAlreadyExistsException("UserName Already Taken,");
+        }
+        return null;
+    }
+
     public UserAlreadyExistsException(String message)
     {
         super(message);
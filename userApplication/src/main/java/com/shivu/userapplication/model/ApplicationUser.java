@@ -13,23 +13,32 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 
 @Entity
-@Table(name = "users")
+// named so a violation can be told apart in AuthenticationService.registerUser
+@Table(name = "users", uniqueConstraints = {
+		@UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+		@UniqueConstraint(name = "uk_users_email", columnNames = "email") }, indexes = {
+				// keyset pages of filtered listings, one per sort key, so the database reads the page in
+				// index order and stops at the limit instead of sorting every match
+				@Index(name = "idx_users_status", columnList = "status, userId"),
+				@Index(name = "idx_users_status_username", columnList = "status, username"),
+				@Index(name = "idx_users_department_username", columnList = "department_id, username") })
 public class ApplicationUser implements UserDetails {
 
 	@Id
 	@GeneratedValue(strategy = GenerationType.AUTO)
 	private Integer userId;
 
-	@Column(unique = true)
 	private String username;
 	private String password;
 
@@ -37,13 +46,16 @@ public class ApplicationUser implements UserDetails {
 	@Column(name = "reset_password_token")
 	private String resetPasswordToken;
 
-	@ManyToOne
+	// both lazy: list queries pick what they need with join fetches or entity graphs (see UserRepository)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "department_id")
 	private Department department;
 
-	@ManyToMany(fetch = FetchType.EAGER)
+	@ManyToMany(fetch = FetchType.LAZY)
+	// the primary key (user_id, role_id) serves lookups by user; the index serves lookups by role
 	@JoinTable(name = "user_role_junction", joinColumns = { @JoinColumn(name = "user_id") }, inverseJoinColumns = {
-			@JoinColumn(name = "role_id") })
+			@JoinColumn(name = "role_id") }, indexes = {
+					@Index(name = "idx_user_role_junction_role", columnList = "role_id, user_id") })
 	private Set<Role> authorities;
 
 	public enum UserStatus {
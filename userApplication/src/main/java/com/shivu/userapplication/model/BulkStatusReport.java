@@ -0,0 +1,79 @@
+package com.shivu.userapplication.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkStatusReport {
+
+    public enum Outcome {
+        APPROVED, REJECTED, NOT_FOUND, NOT_PENDING
+    }
+
+    private long requested;
+    private long updated;
+    private long skipped;
+    // a filter matched more than one request may change; send it again for the rest
+    private boolean more;
+    private long elapsedMillis;
+    private final List<UserOutcome> outcomes = new ArrayList<>();
+
+    public static class UserOutcome {
+        private final String username;
+        private final Outcome outcome;
+
+        public UserOutcome(String username, Outcome outcome) {
+            this.username = username;
+            this.outcome = outcome;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    public void add(String username, Outcome outcome) {
+        requested++;
+        if (outcome == Outcome.APPROVED || outcome == Outcome.REJECTED) {
+            updated++;
+        } else {
+            skipped++;
+        }
+        outcomes.add(new UserOutcome(username, outcome));
+    }
+
+    public void setMore(boolean more) {
+        this.more = more;
+    }
+
+    public void finish(long elapsedNanos) {
+        elapsedMillis = elapsedNanos / 1_000_000L;
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public boolean isMore() {
+        return more;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<UserOutcome> getOutcomes() {
+        return outcomes;
+    }
+}
@@ -0,0 +1,69 @@
+package com.shivu.userapplication.model;
+
+import java.util.List;
+
+/*
+ * Body of POST /admin/approve and /admin/reject: either explicit usernames or
+ * a filter over pending users. roles and department are only used by approve
+ * and, as for a single approval, replace the user's roles / department.
+ */
+public class BulkStatusRequest {
+
+    private List<String> usernames;
+    private Filter filter;
+    private List<String> roles;
+    private String department;
+
+    public static class Filter {
+        private String department;
+        private String emailDomain;
+
+        public String getDepartment() {
+            return department;
+        }
+
+        public void setDepartment(String department) {
+            this.department = department;
+        }
+
+        public String getEmailDomain() {
+            return emailDomain;
+        }
+
+        public void setEmailDomain(String emailDomain) {
+            this.emailDomain = emailDomain;
+        }
+    }
+
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    public void setUsernames(List<String> usernames) {
+        this.usernames = usernames;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(Filter filter) {
+        this.filter = filter;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+}
@@ -1,8 +1,11 @@
 package com.shivu.userapplication.model;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 public class DisplayEmployees {
 
@@ -26,6 +29,13 @@ public class DisplayEmployees {
         this.roles = roles;
     }
 
+    // from a projection row; roleNames is comma-separated (null when the user has no roles)
+    public static DisplayEmployees fromRoleNames(String username, String departmentName, String roleNames) {
+        List<SimpleGrantedAuthority> roles = roleNames == null || roleNames.isEmpty() ? List.of()
+                : Arrays.stream(roleNames.split(",")).map(SimpleGrantedAuthority::new).toList();
+        return new DisplayEmployees(username, departmentName, roles);
+    }
+
     public DisplayEmployees(String username, String departmentName) {
         this.username = username;
         this.departmentName = departmentName;
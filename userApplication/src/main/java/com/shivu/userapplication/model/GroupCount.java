@@ -0,0 +1,12 @@
+package com.shivu.userapplication.model;
+
+/*
+ * One row of a GROUP BY over users: a status, department or role name and
+ * how many users it covers.
+ */
+public interface GroupCount {
+
+	String getName();
+
+	long getCount();
+}
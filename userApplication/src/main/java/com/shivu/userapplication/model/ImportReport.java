@@ -0,0 +1,92 @@
+package com.shivu.userapplication.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReport {
+
+    // keeps the response bounded when a whole file is rejected
+    public static final int MAX_ERRORS = 1000;
+
+    private long rows;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private boolean errorsTruncated;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public static class RowError {
+        private final long line;
+        private final String username;
+        private final String error;
+
+        public RowError(long line, String username, String error) {
+            this.line = line;
+            this.username = username;
+            this.error = error;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    public void rowRead() {
+        rows++;
+    }
+
+    public void imported(int count) {
+        imported += count;
+    }
+
+    public void fail(long line, String username, String error) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, username, error));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public void finish(long elapsedNanos) {
+        elapsedMillis = elapsedNanos / 1_000_000L;
+        rowsPerSecond = elapsedNanos == 0 ? 0 : imported * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,31 @@
+package com.shivu.userapplication.model;
+
+import java.util.List;
+import java.util.function.Function;
+
+/*
+ * One page of a listing. nextCursor is null on the last page; otherwise pass it
+ * back as ?cursor= to get the following page.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetPage<>(items.stream().<R>map(mapper).toList(), nextCursor);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -23,6 +23,12 @@ public class LoginResponse {
         this.jwt = jwt;
     }
 
+    public LoginResponse(String username, String departmentName, Collection<? extends GrantedAuthority> roles,
+            String jwt, String refreshToken) {
+        this(username, departmentName, roles, jwt);
+        this.refreshToken = refreshToken;
+    }
+
     public void setUsername(String username) {
         this.username = username;
     }
@@ -51,5 +57,15 @@ public class LoginResponse {
         this.jwt = jwt;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     private String jwt;
+
+    private String refreshToken;
 }
@@ -2,25 +2,33 @@ package com.shivu.userapplication.model;
 
 
 public class LoginResponseDTO {
-    private ApplicationUser user;
+    private UserPrincipal user;
     
     private String jwt;
 
+    private String refreshToken;
+
     public LoginResponseDTO(){
         super();
     }
 
-    public LoginResponseDTO(ApplicationUser user, String jwt){
+    public LoginResponseDTO(UserPrincipal user, String jwt){
+        this.user = user;
+        this.jwt = jwt;
+    }
+
+    public LoginResponseDTO(UserPrincipal user, String jwt, String refreshToken){
         this.user = user;
         this.jwt = jwt;
+        this.refreshToken = refreshToken;
     }
 
-    public ApplicationUser getUser(){
+    public UserPrincipal getUser(){
         return this.user;
     }
 
 
-    public void setUser(ApplicationUser user){
+    public void setUser(UserPrincipal user){
         this.user = user;
     }
 
@@ -32,4 +40,12 @@ public class LoginResponseDTO {
         this.jwt = jwt;
     }
 
+    public String getRefreshToken(){
+        return this.refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken){
+        this.refreshToken = refreshToken;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.shivu.userapplication.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/*
+ * An issued password-reset link. Only the SHA-256 digest of the token is
+ * stored; a link works once and until expiresAt.
+ */
+@Entity
+@Table(name = "password_reset_tokens", indexes = {
+        @Index(name = "uk_password_reset_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_password_reset_tokens_username", columnList = "username"),
+        @Index(name = "idx_password_reset_tokens_expires_at", columnList = "expires_at") })
+public class PasswordResetToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private boolean used;
+
+    public PasswordResetToken() {
+    }
+
+    public PasswordResetToken(String tokenHash, String username, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.username = username;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isUsed() {
+        return used;
+    }
+}
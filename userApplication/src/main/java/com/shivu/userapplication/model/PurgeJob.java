@@ -0,0 +1,83 @@
+package com.shivu.userapplication.model;
+
+import java.time.Instant;
+
+/*
+ * Progress of a DELETE /admin/deleteall run, as returned by the purge
+ * endpoints. Written by the purge thread only; readers see a consistent enough
+ * snapshot through the volatile fields.
+ */
+public class PurgeJob {
+
+    public enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final String id;
+    private final long total;
+    private final Instant startedAt;
+    private volatile State state = State.RUNNING;
+    private volatile long deleted;
+    private volatile long chunks;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+
+    public PurgeJob(String id, long total) {
+        this.id = id;
+        this.total = total;
+        this.startedAt = Instant.now();
+    }
+
+    public void chunkDeleted(int count) {
+        deleted += count;
+        chunks++;
+    }
+
+    public void finish(State state, String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.state = state;
+    }
+
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // users at the start; concurrent registrations can make deleted end up higher
+    public long getTotal() {
+        return total;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public long getChunks() {
+        return chunks;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
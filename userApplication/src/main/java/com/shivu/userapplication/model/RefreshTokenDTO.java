@@ -0,0 +1,22 @@
+package com.shivu.userapplication.model;
+
+public class RefreshTokenDTO {
+
+    private String refreshToken;
+
+    public RefreshTokenDTO() {
+        super();
+    }
+
+    public RefreshTokenDTO(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -6,10 +6,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name="roles")
+@Table(name="roles", indexes = @Index(name = "idx_roles_authority", columnList = "authority"))
 public class Role implements GrantedAuthority{
 
     @Id
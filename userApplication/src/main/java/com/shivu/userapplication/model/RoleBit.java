@@ -0,0 +1,43 @@
+package com.shivu.userapplication.model;
+
+import java.util.Collection;
+
+/*
+ * Stable bit position of every seeded role, carried in the JWT rmask claim.
+ * Positions are part of issued tokens: append new roles, never renumber.
+ */
+public enum RoleBit {
+    ADMIN(0), USER(1), PAYROLL(2), HR(3), FINANCE(4), SALES(5), GENERAL(6), IT(7);
+
+    private final long mask;
+
+    RoleBit(int bit) {
+        this.mask = 1L << bit;
+    }
+
+    public long mask() {
+        return mask;
+    }
+
+    // roles without a bit (created after seeding) are left out; they still appear in the roles claim
+    public static long maskOf(Collection<String> authorities) {
+        long mask = 0;
+        for (String authority : authorities) {
+            String name = authority.startsWith("ROLE_") ? authority.substring(5) : authority;
+            for (RoleBit role : values()) {
+                if (role.name().equals(name)) {
+                    mask |= role.mask;
+                }
+            }
+        }
+        return mask;
+    }
+
+    public static long maskOf(RoleBit... roles) {
+        long mask = 0;
+        for (RoleBit role : roles) {
+            mask |= role.mask;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,56 @@
+package com.shivu.userapplication.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/*
+ * Which version of a built-in data set (see RBACService) the database already
+ * holds, so startup can skip seeding that has been done.
+ */
+@Entity
+@Table(name = "seed_versions")
+public class SeedVersion {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private int version;
+
+    @Column(name = "applied_at", nullable = false)
+    private Instant appliedAt;
+
+    public SeedVersion() {
+    }
+
+    public SeedVersion(String name, int version, Instant appliedAt) {
+        this.name = name;
+        this.version = version;
+        this.appliedAt = appliedAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public Instant getAppliedAt() {
+        return appliedAt;
+    }
+
+    public void setAppliedAt(Instant appliedAt) {
+        this.appliedAt = appliedAt;
+    }
+}
@@ -0,0 +1,101 @@
+package com.shivu.userapplication.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+
+/*
+ * Immutable, detached copy of the fields authentication needs. This is what
+ * UserService hands to Spring Security and what the principal cache holds, so
+ * no managed entity outlives its persistence context.
+ */
+public final class UserPrincipal implements UserDetails {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Integer userId;
+	private final String username;
+	private final String password;
+	private final UserStatus status;
+	private final String departmentName;
+	private final Set<GrantedAuthority> authorities;
+
+	public UserPrincipal(Integer userId, String username, String password, UserStatus status, String departmentName,
+			Collection<String> roleNames) {
+		this.userId = userId;
+		this.username = username;
+		this.password = password;
+		this.status = status;
+		this.departmentName = departmentName;
+		Set<GrantedAuthority> roles = new LinkedHashSet<>();
+		for (String roleName : roleNames) {
+			roles.add(new SimpleGrantedAuthority(roleName));
+		}
+		this.authorities = Collections.unmodifiableSet(roles);
+	}
+
+	public static UserPrincipal from(ApplicationUser user) {
+		return new UserPrincipal(user.getUserId(), user.getUsername(), user.getPassword(), user.getStatus(),
+				user.getDepartment() != null ? user.getDepartment().getDepartmentName() : null,
+				user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+	}
+
+	public UserPrincipal withPassword(String newPassword) {
+		return new UserPrincipal(userId, username, newPassword, status, departmentName,
+				authorities.stream().map(GrantedAuthority::getAuthority).toList());
+	}
+
+	public Integer getUserId() {
+		return userId;
+	}
+
+	@Override
+	public String getUsername() {
+		return username;
+	}
+
+	@Override
+	public String getPassword() {
+		return password;
+	}
+
+	public UserStatus getStatus() {
+		return status;
+	}
+
+	public String getDepartmentName() {
+		return departmentName;
+	}
+
+	@Override
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return authorities;
+	}
+
+	@Override
+	public boolean isAccountNonExpired() {
+		return true;
+	}
+
+	@Override
+	public boolean isAccountNonLocked() {
+		return true;
+	}
+
+	@Override
+	public boolean isCredentialsNonExpired() {
+		return true;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return status == UserStatus.ACTIVE;
+	}
+}
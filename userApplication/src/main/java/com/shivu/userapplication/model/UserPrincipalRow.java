@@ -0,0 +1,22 @@
+package com.shivu.userapplication.model;
+
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+
+/*
+ * One row of the login projection: the user's columns joined with one of its
+ * roles (authority is null for users without roles).
+ */
+public interface UserPrincipalRow {
+
+	Integer getUserId();
+
+	String getUsername();
+
+	String getPassword();
+
+	UserStatus getStatus();
+
+	String getDepartmentName();
+
+	String getAuthority();
+}
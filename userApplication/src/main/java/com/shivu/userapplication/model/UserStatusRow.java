@@ -0,0 +1,18 @@
+package com.shivu.userapplication.model;
+
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+
+/*
+ * Id, name and status of a user, for status changes that do not need the
+ * entity.
+ */
+public interface UserStatusRow {
+
+	Integer getUserId();
+
+	String getUsername();
+
+	String getEmail();
+
+	UserStatus getStatus();
+}
@@ -1,5 +1,7 @@
 package com.shivu.userapplication.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,4 +18,6 @@ public interface DepartmentRepository extends JpaRepository<Department, Integer>
    Optional<Department> findFirstByDepartmentName(String departmentName);
 
    Optional<Department> findByDepartmentName(String departmentName);
+
+   List<Department> findByDepartmentNameIn(Collection<String> departmentNames);
 }
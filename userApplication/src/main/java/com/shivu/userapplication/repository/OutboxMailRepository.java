@@ -0,0 +1,70 @@
+package com.shivu.userapplication.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.shivu.userapplication.model.OutboxMail;
+import com.shivu.userapplication.model.OutboxMail.Status;
+
+import jakarta.transaction.Transactional;
+
+@Repository
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+
+    @Query("SELECT m.id FROM OutboxMail m WHERE m.status = :status AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<Long> findDueIds(@Param("status") Status status, @Param("now") Instant now, Pageable pageable);
+
+    // takes the rows for one dispatcher run; a row another run claimed first no longer matches
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMail m SET m.claim = :claim, m.nextAttemptAt = :leaseUntil "
+            + "WHERE m.id IN :ids AND m.status = :status AND m.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("status") Status status, @Param("claim") String claim,
+            @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    List<OutboxMail> findByClaim(String claim);
+
+    // the bookkeeping updates only touch rows still held by the caller's claim: a run that outlived
+    // its lease must not overwrite the run that took the rows over. A finished mail's body is
+    // cleared, since it may hold a live password-reset link
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMail m SET m.status = :status, "
+            + "m.attempts = m.attempts + 1, m.sentAt = :now, m.claim = null, m.lastError = null, m.body = '' "
+            + "WHERE m.id IN :ids AND m.claim = :claim")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("claim") String claim, @Param("status") Status status,
+            @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMail m SET m.status = :status, m.attempts = m.attempts + 1, m.nextAttemptAt = :nextAttemptAt, "
+            + "m.claim = null, m.lastError = :error WHERE m.id = :id AND m.claim = :claim")
+    int markAttemptFailed(@Param("id") Long id, @Param("claim") String claim, @Param("status") Status status,
+            @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMail m SET m.status = :status, m.attempts = m.attempts + 1, m.nextAttemptAt = :now, "
+            + "m.claim = null, m.lastError = :error, m.body = '' WHERE m.id = :id AND m.claim = :claim")
+    int markGivenUp(@Param("id") Long id, @Param("claim") String claim, @Param("status") Status status,
+            @Param("now") Instant now, @Param("error") String error);
+
+    @Query("SELECT m.id FROM OutboxMail m WHERE m.status IN :statuses AND m.createdAt < :before")
+    List<Long> findFinishedIds(@Param("statuses") Collection<Status> statuses, @Param("before") Instant before,
+            Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxMail m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByStatus(Status status);
+}
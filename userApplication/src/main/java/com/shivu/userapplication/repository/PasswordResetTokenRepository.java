@@ -0,0 +1,50 @@
+package com.shivu.userapplication.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.shivu.userapplication.model.PasswordResetToken;
+
+import jakarta.transaction.Transactional;
+
+@Repository
+public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
+
+    Optional<PasswordResetToken> findByTokenHash(String tokenHash);
+
+    // compare-and-set, so a link submitted twice at once resets the password only once
+    @Transactional
+    @Modifying
+    @Query("UPDATE PasswordResetToken t SET t.used = true WHERE t.id = :id AND t.used = false AND t.expiresAt > :now")
+    int consume(@Param("id") Long id, @Param("now") Instant now);
+
+    // a new link replaces any the user still has outstanding
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.username = :username")
+    int deleteByUsername(@Param("username") String username);
+
+    // for users being deleted or renamed: their links must not outlive the name
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.username IN :usernames")
+    int deleteByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    // used links are kept until they expire like the rest
+    @Query("SELECT t.id FROM PasswordResetToken t WHERE t.expiresAt < :now")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,5 +1,7 @@
 package com.shivu.userapplication.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,4 +14,6 @@ public interface RoleRepository extends JpaRepository<Role, Integer> {
     Optional<Role> findFirstByAuthority(String authority);
 
     Optional<Role> findByAuthority(String authority);
+
+    List<Role> findByAuthorityIn(Collection<String> authorities);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.shivu.userapplication.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.shivu.userapplication.model.SeedVersion;
+
+@Repository
+public interface SeedVersionRepository extends JpaRepository<SeedVersion, String> {
+}
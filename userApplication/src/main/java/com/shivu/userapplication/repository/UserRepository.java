@@ -1,32 +1,187 @@
 package com.shivu.userapplication.repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.shivu.userapplication.model.ApplicationUser;
 import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.model.Department;
+import com.shivu.userapplication.model.GroupCount;
+import com.shivu.userapplication.model.UserPrincipal;
+import com.shivu.userapplication.model.UserPrincipalRow;
+import com.shivu.userapplication.model.UserStatusRow;
 
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 
 @Repository
-public interface UserRepository extends JpaRepository<ApplicationUser, Integer> {
+public interface UserRepository extends JpaRepository<ApplicationUser, Integer>, UserRepositoryCustom {
 	Optional<ApplicationUser> findByUsername(String username);
 
+	// for responses that serialise the whole user: roles and department in the same select
+	@EntityGraph(attributePaths = { "authorities", "department" })
+	Optional<ApplicationUser> findWithAuthoritiesByUsername(String username);
+
+	@Modifying
+	@Query(value = "DELETE FROM user_department_junction WHERE user_id IN "
+			+ "(SELECT user_id FROM users WHERE username = :username)", nativeQuery = true)
+	int deleteDepartmentLinksByUsername(@Param("username") String username);
+
+	// Hibernate deletes the owned user_role_junction rows first, in one statement
+	@Modifying
+	@Query("DELETE FROM ApplicationUser u WHERE u.username = :username")
+	int deleteUserRowByUsername(@Param("username") String username);
+
+	// outstanding reset links would otherwise work for the next account registered under the name
+	@Modifying
+	@Query(value = "DELETE FROM password_reset_tokens WHERE username = :username", nativeQuery = true)
+	int deleteResetTokensByUsername(@Param("username") String username);
+
+	// the user, its junction rows and reset links in four statements, nothing loaded; 0 if there was no such user
 	@Transactional
-	Optional<ApplicationUser> deleteByUsername(String username);
+	default int deleteByUsername(String username) {
+		deleteDepartmentLinksByUsername(username);
+		deleteResetTokensByUsername(username);
+		return deleteUserRowByUsername(username);
+	}
 
 	ApplicationUser findByEmail(String email);
 
-	Optional<ApplicationUser> findByResetPasswordToken(String token);
-
 	@Query("SELECT u FROM ApplicationUser u WHERE u.department.departmentName= :departmentName")
 	ArrayList<ApplicationUser> findAllByDepartmentName(@Param("departmentName") String departmentName);
 
 	List<ApplicationUser> findByStatus(UserStatus status);
+
+	List<ApplicationUser> findByUsernameIn(Collection<String> usernames);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE ApplicationUser u SET u.status = :status WHERE u.username IN :usernames AND u.status <> :status")
+	int updateStatusByUsernameIn(@Param("usernames") Collection<String> usernames, @Param("status") UserStatus status);
+
+	// bulk status changes: the rows are locked until the caller's transaction ends
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT u.userId AS userId, u.username AS username, u.email AS email, u.status AS status "
+			+ "FROM ApplicationUser u "
+			+ "WHERE u.username IN :usernames")
+	List<UserStatusRow> lockStatusRowsByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+	// emailPattern is a LIKE pattern, null for any email
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT u.userId AS userId, u.username AS username, u.email AS email, u.status AS status "
+			+ "FROM ApplicationUser u "
+			+ "WHERE u.status = :status AND (:departmentName IS NULL OR u.department.departmentName = :departmentName) "
+			+ "AND (:emailPattern IS NULL OR u.email LIKE :emailPattern) ORDER BY u.userId")
+	List<UserStatusRow> lockStatusRowsByFilter(@Param("status") UserStatus status,
+			@Param("departmentName") String departmentName, @Param("emailPattern") String emailPattern,
+			Pageable pageable);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE ApplicationUser u SET u.status = :to WHERE u.userId IN :ids AND u.status = :from")
+	int updateStatusByUserIdIn(@Param("ids") Collection<Integer> ids, @Param("from") UserStatus from,
+			@Param("to") UserStatus to);
+
+	// the bulk reassignment statements below also check status, so a row the caller
+	// selected by mistake is left alone
+	@Transactional
+	@Modifying
+	@Query("UPDATE ApplicationUser u SET u.department = :department WHERE u.userId IN :ids AND u.status = :status")
+	int updateDepartmentByUserIdIn(@Param("ids") Collection<Integer> ids, @Param("status") UserStatus status,
+			@Param("department") Department department);
+
+	@Transactional
+	@Modifying
+	@Query(value = "DELETE FROM user_role_junction WHERE user_id IN "
+			+ "(SELECT u.user_id FROM users u WHERE u.user_id IN :ids AND u.status = 'PENDING')", nativeQuery = true)
+	int deletePendingRolesByUserIdIn(@Param("ids") Collection<Integer> ids);
+
+	// every (user, role) pair in one INSERT ... SELECT
+	@Transactional
+	@Modifying
+	@Query(value = "INSERT INTO user_role_junction (user_id, role_id) SELECT u.user_id, r.role_id FROM users u, roles r "
+			+ "WHERE u.user_id IN :ids AND u.status = 'PENDING' AND r.role_id IN :roleIds", nativeQuery = true)
+	int insertPendingRolesByUserIdIn(@Param("ids") Collection<Integer> ids, @Param("roleIds") Collection<Integer> roleIds);
+
+	@Query("SELECT u.userId AS userId, u.username AS username, u.email AS email, u.status AS status "
+			+ "FROM ApplicationUser u "
+			+ "WHERE u.userId > :after ORDER BY u.userId")
+	List<UserStatusRow> findStatusRowsAfter(@Param("after") Integer after, Pageable pageable);
+
+	@Transactional
+	@Modifying
+	@Query(value = "DELETE FROM user_department_junction WHERE user_id IN :ids", nativeQuery = true)
+	int deleteDepartmentLinksByUserIdIn(@Param("ids") Collection<Integer> ids);
+
+	// removes user_role_junction rows too (Hibernate issues that delete first); the caller removes
+	// user_department_junction rows, which Department owns
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM ApplicationUser u WHERE u.userId IN :ids")
+	int deleteByUserIdIn(@Param("ids") Collection<Integer> ids);
+
+	// directory statistics, one aggregate per dimension (see DirectoryStatsService)
+	@Query("SELECT str(u.status) AS name, COUNT(u) AS count FROM ApplicationUser u GROUP BY u.status")
+	List<GroupCount> countGroupedByStatus();
+
+	@Query("SELECT d.departmentName AS name, COUNT(u) AS count FROM ApplicationUser u JOIN u.department d "
+			+ "GROUP BY d.departmentName")
+	List<GroupCount> countGroupedByDepartment();
+
+	@Query("SELECT r.authority AS name, COUNT(u) AS count FROM ApplicationUser u JOIN u.authorities r "
+			+ "GROUP BY r.authority")
+	List<GroupCount> countGroupedByRole();
+
+	// what a bulk reassignment is about to take away from the counters
+	@Query("SELECT d.departmentName AS name, COUNT(u) AS count FROM ApplicationUser u JOIN u.department d "
+			+ "WHERE u.userId IN :ids AND u.status = :status GROUP BY d.departmentName")
+	List<GroupCount> countDepartmentsByUserIdIn(@Param("ids") Collection<Integer> ids,
+			@Param("status") UserStatus status);
+
+	@Query("SELECT r.authority AS name, COUNT(u) AS count FROM ApplicationUser u JOIN u.authorities r "
+			+ "WHERE u.userId IN :ids AND u.status = :status GROUP BY r.authority")
+	List<GroupCount> countRolesByUserIdIn(@Param("ids") Collection<Integer> ids, @Param("status") UserStatus status);
+
+	@Query("SELECT DISTINCT u FROM ApplicationUser u JOIN u.authorities r WHERE r.authority = :authority AND u.status <> :status")
+	List<ApplicationUser> findByAuthorityAndStatusNot(@Param("authority") String authority,
+			@Param("status") UserStatus status);
+
+	@Query("SELECT u.username FROM ApplicationUser u WHERE u.username IN :usernames")
+	List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+	@Query("SELECT u.email FROM ApplicationUser u WHERE u.email IN :emails")
+	List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+	// everything login needs in one statement, one row per role
+	@Query("SELECT u.userId AS userId, u.username AS username, u.password AS password, u.status AS status, "
+			+ "d.departmentName AS departmentName, r.authority AS authority "
+			+ "FROM ApplicationUser u LEFT JOIN u.department d LEFT JOIN u.authorities r WHERE u.username = :username")
+	List<UserPrincipalRow> findPrincipalRowsByUsername(@Param("username") String username);
+
+	default Optional<UserPrincipal> findPrincipalByUsername(String username) {
+		List<UserPrincipalRow> rows = findPrincipalRowsByUsername(username);
+		if (rows.isEmpty()) {
+			return Optional.empty();
+		}
+		UserPrincipalRow first = rows.get(0);
+		List<String> roleNames = rows.stream().map(UserPrincipalRow::getAuthority).filter(a -> a != null).toList();
+		return Optional.of(new UserPrincipal(first.getUserId(), first.getUsername(), first.getPassword(),
+				first.getStatus(), first.getDepartmentName(), roleNames));
+	}
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE ApplicationUser u SET u.password = :password WHERE u.username = :username")
+	int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
 }
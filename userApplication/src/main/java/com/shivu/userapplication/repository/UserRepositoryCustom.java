@@ -0,0 +1,30 @@
+package com.shivu.userapplication.repository;
+
+import java.util.Collection;
+
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.model.DisplayEmployees;
+import com.shivu.userapplication.model.KeysetPage;
+import com.shivu.userapplication.utils.KeysetCursor;
+
+public interface UserRepositoryCustom {
+
+	// status and departmentName are optional filters; limit is clamped to userapp.pagination.max-limit.
+	// The department is fetched with the page; authorities stay lazy.
+	KeysetPage<ApplicationUser> findPage(UserStatus status, String departmentName, KeysetCursor cursor,
+			Integer limit);
+
+	// findPage plus one more query that loads the page's authorities
+	KeysetPage<ApplicationUser> findPageWithAuthorities(UserStatus status, String departmentName,
+			KeysetCursor cursor, Integer limit);
+
+	// same page as findPage but selected straight into DisplayEmployees (two queries: the page, then its
+	// role names); no entities, password hashes or role sets are loaded
+	KeysetPage<DisplayEmployees> findDisplayPage(UserStatus status, String departmentName, KeysetCursor cursor,
+			Integer limit);
+
+	// findDisplayPage restricted, in the query, to users holding at least one role not in roles
+	KeysetPage<DisplayEmployees> findDisplayPageWithRoleOtherThan(Collection<String> roles, KeysetCursor cursor,
+			Integer limit);
+}
@@ -0,0 +1,144 @@
+package com.shivu.userapplication.repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.model.DisplayEmployees;
+import com.shivu.userapplication.model.KeysetPage;
+import com.shivu.userapplication.utils.KeysetCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Transactional;
+
+/*
+ * Keyset pagination for the user listings. Each page is one range scan on an
+ * index ending in the sort key (see the indexes on ApplicationUser) that stops
+ * after limit + 1 rows; the extra row only tells whether there is a next page.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+	private static final String DISPLAY_SELECT = "SELECT u.userId, u.username, d.departmentName "
+			+ "FROM ApplicationUser u LEFT JOIN u.department d";
+
+	// Role names of one page, comma-joined per user. A separate query: joining the roles into the page
+	// query needs a GROUP BY, and grouping (or a per-row subquery) runs over every row after the cursor
+	// before the limit applies, where this only touches the page's rows.
+	private static final String ROLE_NAMES = "SELECT u.userId, listagg(r.authority, ',') WITHIN GROUP (ORDER BY r.authority) "
+			+ "FROM ApplicationUser u JOIN u.authorities r WHERE u.userId IN :ids GROUP BY u.userId";
+
+	// Users with at least one role outside the given set. Evaluated per candidate row through the
+	// junction's primary key (user_id, role_id); idx_user_role_junction_role lets the database start
+	// from the matching roles instead when they are rare.
+	private static final String HAS_OTHER_ROLE = " AND EXISTS (SELECT 1 FROM u.authorities r WHERE r.authority NOT IN :roles)";
+
+	private record Filter(UserStatus status, String departmentName, Collection<String> roleOtherThan) {
+	}
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Value("${userapp.pagination.default-limit:50}")
+	private int defaultLimit;
+
+	@Value("${userapp.pagination.max-limit:500}")
+	private int maxLimit;
+
+	@Override
+	public KeysetPage<ApplicationUser> findPage(UserStatus status, String departmentName, KeysetCursor cursor,
+			Integer limit) {
+		return page("SELECT u FROM ApplicationUser u LEFT JOIN FETCH u.department d", ApplicationUser.class,
+				new Filter(status, departmentName, null), cursor, limit,
+				user -> cursor.getKey() == KeysetCursor.SortKey.USER_ID ? user.getUserId() : user.getUsername());
+	}
+
+	// Fetch-joining the collection into the page query would make Hibernate apply the limit in memory,
+	// so the roles come from a second query that initialises them on the same (managed) users.
+	@Override
+	@Transactional
+	public KeysetPage<ApplicationUser> findPageWithAuthorities(UserStatus status, String departmentName,
+			KeysetCursor cursor, Integer limit) {
+		KeysetPage<ApplicationUser> page = findPage(status, departmentName, cursor, limit);
+		if (!page.getItems().isEmpty()) {
+			entityManager.createQuery(
+					"SELECT DISTINCT u FROM ApplicationUser u LEFT JOIN FETCH u.authorities WHERE u IN :users",
+					ApplicationUser.class).setParameter("users", page.getItems()).getResultList();
+		}
+		return page;
+	}
+
+	@Override
+	public KeysetPage<DisplayEmployees> findDisplayPage(UserStatus status, String departmentName,
+			KeysetCursor cursor, Integer limit) {
+		return displayPage(new Filter(status, departmentName, null), cursor, limit);
+	}
+
+	@Override
+	public KeysetPage<DisplayEmployees> findDisplayPageWithRoleOtherThan(Collection<String> roles,
+			KeysetCursor cursor, Integer limit) {
+		return displayPage(new Filter(null, null, roles), cursor, limit);
+	}
+
+	private KeysetPage<DisplayEmployees> displayPage(Filter filter, KeysetCursor cursor, Integer limit) {
+		KeysetPage<Object[]> page = page(DISPLAY_SELECT, Object[].class, filter, cursor, limit,
+				row -> cursor.getKey() == KeysetCursor.SortKey.USER_ID ? row[0] : row[1]);
+		Map<Integer, String> roleNames = new HashMap<>();
+		if (!page.getItems().isEmpty()) {
+			List<Integer> ids = page.getItems().stream().map(row -> (Integer) row[0]).toList();
+			entityManager.createQuery(ROLE_NAMES, Object[].class).setParameter("ids", ids).getResultList()
+					.forEach(row -> roleNames.put((Integer) row[0], (String) row[1]));
+		}
+		return page.map(row -> DisplayEmployees.fromRoleNames((String) row[1], (String) row[2],
+				roleNames.get(row[0])));
+	}
+
+	private <T> KeysetPage<T> page(String select, Class<T> resultType, Filter filter, KeysetCursor cursor,
+			Integer limit, Function<T, Object> keyOf) {
+		int pageSize = limit == null || limit < 1 ? defaultLimit : Math.min(limit, maxLimit);
+		String key = "u." + cursor.getKey().getProperty();
+
+		StringBuilder jpql = new StringBuilder(select).append(" WHERE 1 = 1");
+		if (filter.status() != null) {
+			jpql.append(" AND u.status = :status");
+		}
+		if (filter.departmentName() != null) {
+			jpql.append(" AND d.departmentName = :departmentName");
+		}
+		if (filter.roleOtherThan() != null) {
+			jpql.append(HAS_OTHER_ROLE);
+		}
+		if (!cursor.isFirstPage()) {
+			jpql.append(" AND ").append(key).append(cursor.isDescending() ? " < :after" : " > :after");
+		}
+		jpql.append(" ORDER BY ").append(key).append(cursor.isDescending() ? " DESC" : " ASC");
+
+		TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultType);
+		if (filter.status() != null) {
+			query.setParameter("status", filter.status());
+		}
+		if (filter.departmentName() != null) {
+			query.setParameter("departmentName", filter.departmentName());
+		}
+		if (filter.roleOtherThan() != null) {
+			query.setParameter("roles", filter.roleOtherThan());
+		}
+		if (!cursor.isFirstPage()) {
+			query.setParameter("after", cursor.getAfter());
+		}
+		List<T> rows = query.setMaxResults(pageSize + 1).getResultList();
+
+		if (rows.size() <= pageSize) {
+			return new KeysetPage<>(rows, null);
+		}
+		List<T> page = rows.subList(0, pageSize);
+		return new KeysetPage<>(page, cursor.next(keyOf.apply(page.get(pageSize - 1))).encode());
+	}
+}
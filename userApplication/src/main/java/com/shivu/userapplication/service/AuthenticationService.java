@@ -7,11 +7,11 @@ import com.shivu.userapplication.exception.UserNotFoundException;
 import java.util.HashSet;
 import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,7 +21,7 @@ import com.shivu.userapplication.model.ApplicationUser;
 import com.shivu.userapplication.model.Department;
 import com.shivu.userapplication.model.LoginResponseDTO;
 import com.shivu.userapplication.model.Role;
-import com.shivu.userapplication.repository.DepartmentRepository;
+import com.shivu.userapplication.model.UserPrincipal;
 import com.shivu.userapplication.repository.RoleRepository;
 import com.shivu.userapplication.repository.UserRepository;
 
@@ -38,68 +38,114 @@ public class AuthenticationService {
 	private PasswordEncoder passwordEncoder;
 
 	@Autowired
-	private AuthenticationManager authenticationManager;
+	private UserService userService;
 
 	@Autowired
 	private TokenService tokenService;
 
 	@Autowired
-	DepartmentRepository departmentRepository;
+	private RefreshTokenService refreshTokenService;
 
+	@Autowired
+	private ReferenceDataService referenceDataService;
+
+	@Autowired
+	private DirectoryStatsService directoryStatsService;
+
+	/*
+	 * Duplicates are caught by the unique indexes on username and email rather than
+	 * by lookups first, so a registration is the hash plus one insert and two
+	 * concurrent registrations of the same name cannot both succeed.
+	 */
 	@Transactional
 	public ApplicationUser registerUser(String username, String password, String email, String departmentName) {
-		if (userRepository.findByUsername(username).isPresent()) {
-			throw new UserAlreadyExistsException("User with username " + username + " already exists");
-		}
-
 		String encodedPassword = passwordEncoder.encode(password);
 
-		Department userDepartment;
-		if (departmentName != null && !departmentName.isEmpty()) {
-			userDepartment = departmentRepository.findFirstByDepartmentName(departmentName)
-					.orElseGet(() -> {
-						Department newDept = new Department(departmentName);
-						return departmentRepository.save(newDept);
-					});
-		} else {
-			userDepartment = departmentRepository.findFirstByDepartmentName("USER")
-					.orElseGet(() -> {
-						Department newDept = new Department(2, "USER");
-						return departmentRepository.save(newDept);
-					});
-		}
+		Department userDepartment = referenceDataService.departmentFor(
+				departmentName != null && !departmentName.isEmpty() ? departmentName : "USER");
 
 		Set<Role> authorities = new HashSet<>();
 		// No roles assigned initially. User must be approved by admin.
 
 		String resetPasswordToken = null;
-		ApplicationUser newUser = new ApplicationUser(0, username, encodedPassword, authorities, userDepartment, email,
+		ApplicationUser newUser = new ApplicationUser(username, encodedPassword, authorities, userDepartment, email,
 				resetPasswordToken);
 		newUser.setStatus(ApplicationUser.UserStatus.PENDING);
-		return userRepository.save(newUser);
+		try {
+			ApplicationUser saved = userRepository.saveAndFlush(newUser);
+			directoryStatsService.added(DirectoryStatsService.Entry.of(saved));
+			return saved;
+		} catch (DataIntegrityViolationException e) {
+			UserAlreadyExistsException duplicate = UserAlreadyExistsException.fromConstraintViolation(e);
+			throw duplicate != null ? duplicate : e;
+		}
 	}
 
+	/*
+	 * One principal lookup (cached, or a single projection query) feeds the status
+	 * check, the password check and the JWT, instead of going through the
+	 * AuthenticationManager which would load the same user again.
+	 */
 	public LoginResponseDTO loginUser(String username, String password) {
+		return loginUser(username, password, true);
+	}
 
+	// withRefreshToken false for callers that cannot hand the refresh token to the client (the form login)
+	public LoginResponseDTO loginUser(String username, String password, boolean withRefreshToken) {
+		UserPrincipal user;
 		try {
-			ApplicationUser user = userRepository.findByUsername(username)
-					.orElseThrow(() -> new UserNotFoundException("User not found"));
+			user = (UserPrincipal) userService.loadUserByUsername(username);
+		} catch (UsernameNotFoundException e) {
+			throw new UserNotFoundException("User not found");
+		}
 
-			if (user.getStatus() == ApplicationUser.UserStatus.PENDING) {
-				throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Account is awaiting admin approval");
-			} else if (user.getStatus() == ApplicationUser.UserStatus.REJECTED) {
-				throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Account has been rejected");
-			}
+		if (user.getStatus() == ApplicationUser.UserStatus.PENDING) {
+			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Account is awaiting admin approval");
+		} else if (user.getStatus() == ApplicationUser.UserStatus.REJECTED) {
+			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Account has been rejected");
+		} else if (!user.isEnabled() || !passwordEncoder.matches(password, user.getPassword())) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials!");
+		}
+
+		if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+			userService.updatePassword(user, passwordEncoder.encode(password));
+		}
 
-			Authentication auth = authenticationManager
-					.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+		Authentication auth = UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+		String token = tokenService.generateJwt(auth);
+		return withRefreshToken ? new LoginResponseDTO(user, token, refreshTokenService.issue(user.getUsername()))
+				: new LoginResponseDTO(user, token);
+	}
 
-			String token = tokenService.generateJwt(auth);
-			System.out.println(user.getDepartment().getDepartmentName());
-			return new LoginResponseDTO(user, token);
+	// a wrong username or password, as opposed to a busy server, a database error or a blocked account
+	public static boolean isBadCredentials(RuntimeException e) {
+		return e instanceof UserNotFoundException
+				|| e instanceof ResponseStatusException status && status.getStatusCode() == HttpStatus.UNAUTHORIZED;
+	}
 
-		} catch (AuthenticationException e) {
-			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials!");
+	/*
+	 * Trades a refresh token for a new access token and refresh token. No password
+	 * hash: the status check runs against the cached principal, so a rejected or
+	 * deleted account cannot refresh either.
+	 */
+	public LoginResponseDTO refresh(String refreshToken) {
+		RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+		UserPrincipal user;
+		try {
+			user = (UserPrincipal) userService.loadUserByUsername(rotation.username());
+		} catch (UsernameNotFoundException e) {
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+		}
+		if (user.getStatus() != ApplicationUser.UserStatus.ACTIVE || !user.isEnabled()) {
+			refreshTokenService.revokeAll(user.getUsername());
+			throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Account is no longer active");
 		}
+
+		Authentication auth = UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+		return new LoginResponseDTO(user, tokenService.generateJwt(auth), rotation.refreshToken());
+	}
+
+	public void logout(String refreshToken) {
+		refreshTokenService.revoke(refreshToken);
 	}
 }
\ No newline at end of file
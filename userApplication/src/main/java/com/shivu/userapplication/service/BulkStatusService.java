@@ -0,0 +1,205 @@
+package com.shivu.userapplication.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.model.BulkStatusReport;
+import com.shivu.userapplication.model.BulkStatusReport.Outcome;
+import com.shivu.userapplication.model.BulkStatusRequest;
+import com.shivu.userapplication.model.Department;
+import com.shivu.userapplication.model.Role;
+import com.shivu.userapplication.model.UserStatusRow;
+import com.shivu.userapplication.repository.UserRepository;
+
+/*
+ * Approves or rejects many pending users in one transaction. The targets are
+ * selected and locked with one query per chunk; each change after that is one
+ * set-based statement per id chunk (status UPDATE, role junction DELETE plus
+ * INSERT ... SELECT, department UPDATE), so the cost no longer grows with a
+ * round trip per user. Only PENDING users change; everyone else named in the
+ * request is reported as NOT_FOUND or NOT_PENDING. Each changed user gets an
+ * approval or rejection email through the outbox. Reassigned roles and
+ * departments are counted per chunk with one GROUP BY each before they are
+ * overwritten, so the directory counters move by exactly what changed.
+ */
+@Service
+public class BulkStatusService {
+
+    // keeps IN lists well inside every driver's parameter limit
+    private static final int ID_CHUNK = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private DirectoryStatsService directoryStatsService;
+
+    @Value("${userapp.bulk.max-users:10000}")
+    private int maxUsers;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkStatusService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkStatusReport approve(BulkStatusRequest request) {
+        return apply(request, true);
+    }
+
+    public BulkStatusReport reject(BulkStatusRequest request) {
+        return apply(request, false);
+    }
+
+    private BulkStatusReport apply(BulkStatusRequest request, boolean approve) {
+        long started = System.nanoTime();
+        boolean byName = request.getUsernames() != null && !request.getUsernames().isEmpty();
+        if (byName == (request.getFilter() != null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Give either usernames or a filter");
+        }
+        if (!byName && isBlank(request.getFilter().getDepartment()) && isBlank(request.getFilter().getEmailDomain())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A filter needs a department or emailDomain");
+        }
+        if (byName && request.getUsernames().size() > maxUsers) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxUsers + " usernames per request");
+        }
+        List<Role> roles = approve ? roles(request.getRoles()) : List.of();
+        List<Integer> roleIds = roles.stream().map(Role::getRoleId).toList();
+        Department department = approve && !isBlank(request.getDepartment())
+                ? referenceDataService.departmentFor(request.getDepartment())
+                : null;
+
+        BulkStatusReport report = new BulkStatusReport();
+        List<String> changed = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(tx -> {
+            Map<String, UserStatusRow> rows = new LinkedHashMap<>();
+            if (byName) {
+                // the database may match names case-insensitively (MySQL's default collation), so
+                // a requested name is looked up the same way and the stored spelling is kept
+                Set<String> usernames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+                List<String> names = request.getUsernames().stream().filter(Objects::nonNull).filter(usernames::add)
+                        .toList();
+                Map<String, UserStatusRow> locked = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                for (int from = 0; from < names.size(); from += ID_CHUNK) {
+                    List<String> chunk = names.subList(from, Math.min(from + ID_CHUNK, names.size()));
+                    userRepository.lockStatusRowsByUsernameIn(chunk).forEach(row -> locked.put(row.getUsername(), row));
+                }
+                for (String username : names) {
+                    UserStatusRow row = locked.get(username);
+                    if (row == null) {
+                        report.add(username, Outcome.NOT_FOUND);
+                    } else if (row.getStatus() != UserStatus.PENDING) {
+                        report.add(username, Outcome.NOT_PENDING);
+                    } else {
+                        rows.put(row.getUsername(), row);
+                    }
+                }
+            } else {
+                // one more row than allowed tells us whether the filter matched more
+                List<UserStatusRow> matched = userRepository.lockStatusRowsByFilter(UserStatus.PENDING,
+                        request.getFilter().getDepartment(), emailPattern(request.getFilter().getEmailDomain()),
+                        PageRequest.of(0, maxUsers + 1));
+                report.setMore(matched.size() > maxUsers);
+                matched.stream().limit(maxUsers).forEach(row -> rows.put(row.getUsername(), row));
+            }
+
+            UserStatus target = approve ? UserStatus.ACTIVE : UserStatus.REJECTED;
+            DirectoryStatsService.Delta delta = new DirectoryStatsService.Delta();
+            List<Integer> ids = rows.values().stream().map(UserStatusRow::getUserId).toList();
+            for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + ID_CHUNK, ids.size()));
+                if (!roleIds.isEmpty()) {
+                    delta.roles(userRepository.countRolesByUserIdIn(chunk, UserStatus.PENDING), -1);
+                    roles.forEach(role -> delta.role(role.getAuthority(), chunk.size()));
+                    userRepository.deletePendingRolesByUserIdIn(chunk);
+                    userRepository.insertPendingRolesByUserIdIn(chunk, roleIds);
+                }
+                if (department != null) {
+                    delta.departments(userRepository.countDepartmentsByUserIdIn(chunk, UserStatus.PENDING), -1);
+                    delta.department(department.getDepartmentName(), chunk.size());
+                    userRepository.updateDepartmentByUserIdIn(chunk, UserStatus.PENDING, department);
+                }
+                userRepository.updateStatusByUserIdIn(chunk, UserStatus.PENDING, target);
+            }
+            delta.status(UserStatus.PENDING, -ids.size()).status(target, ids.size());
+            directoryStatsService.apply(delta);
+            changed.addAll(rows.keySet());
+            if (!approve) {
+                for (int from = 0; from < changed.size(); from += ID_CHUNK) {
+                    refreshTokenService.revokeAll(changed.subList(from, Math.min(from + ID_CHUNK, changed.size())));
+                }
+            }
+            // notices commit with the status change
+            mailOutboxService.enqueueAll(rows.values().stream().filter(row -> row.getEmail() != null)
+                    .map(row -> approve ? MailOutboxService.approvalNotice(row.getEmail(), row.getUsername())
+                            : MailOutboxService.rejectionNotice(row.getEmail(), row.getUsername()))
+                    .toList());
+        });
+
+        changed.forEach(username -> {
+            report.add(username, approve ? Outcome.APPROVED : Outcome.REJECTED);
+            principalCache.invalidate(username);
+        });
+        report.finish(System.nanoTime() - started);
+        System.out.println((approve ? "Bulk approve: " : "Bulk reject: ") + report.getUpdated() + " updated, "
+                + report.getSkipped() + " skipped in " + report.getElapsedMillis() + " ms");
+        return report;
+    }
+
+    // unknown roles are ignored, as for a single approval
+    private List<Role> roles(List<String> roleNames) {
+        List<Role> roles = new ArrayList<>();
+        if (roleNames != null) {
+            for (String roleName : new LinkedHashSet<>(roleNames)) {
+                Role role = referenceDataService.roleFor(roleName);
+                if (role != null) {
+                    roles.add(role);
+                }
+            }
+        }
+        return roles;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static String emailPattern(String emailDomain) {
+        if (isBlank(emailDomain)) {
+            return null;
+        }
+        if (emailDomain.contains("%") || emailDomain.contains("_")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid email domain");
+        }
+        return "%@" + (emailDomain.startsWith("@") ? emailDomain.substring(1) : emailDomain);
+    }
+}
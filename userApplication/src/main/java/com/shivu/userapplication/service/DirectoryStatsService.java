@@ -0,0 +1,290 @@
+package com.shivu.userapplication.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.model.GroupCount;
+import com.shivu.userapplication.model.UserPrincipalRow;
+import com.shivu.userapplication.repository.UserRepository;
+
+/*
+ * Headcounts by status, department and role for the dashboards, held in
+ * memory and moved by a delta from each write that changes them
+ * (registration, approval, rejection, import, delete), so a read copies three
+ * small maps instead of downloading the user list. A delta is applied when
+ * its transaction commits. Writes that cannot cheaply say what they changed
+ * (seeding, a purge) mark the counters stale instead, and the next read
+ * rebuilds them with one GROUP BY per dimension. The same rebuild runs every
+ * reconcile-interval to correct drift from other nodes or from a write that
+ * committed while a rebuild was reading; the size of each correction is
+ * reported in stats().
+ */
+@Service
+public class DirectoryStatsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<UserStatus, Long> byStatus = new EnumMap<>(UserStatus.class);
+    private final Map<String, Long> byDepartment = new TreeMap<>();
+    private final Map<String, Long> byRole = new TreeMap<>();
+    private Instant reconciledAt;
+
+    private volatile boolean stale = true;
+    private final Object rebuildLock = new Object();
+
+    private long deltas;
+    private long reads;
+    private long reconciles;
+    private long lastDrift;
+    private long totalDrift;
+    private long lastReconcileMillis;
+
+    // one user's place in the counters
+    public record Entry(UserStatus status, String department, Set<String> roles) {
+
+        public static Entry of(ApplicationUser user) {
+            return new Entry(user.getStatus(),
+                    user.getDepartment() == null ? null : user.getDepartment().getDepartmentName(),
+                    user.getAuthorities() == null ? Set.of()
+                            : user.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                                    .collect(Collectors.toSet()));
+        }
+
+        public Entry withStatus(UserStatus status) {
+            return new Entry(status, department, roles);
+        }
+
+        public Entry withDepartment(String department) {
+            return new Entry(status, department, roles);
+        }
+
+        public Entry withRoles(Set<String> roles) {
+            return new Entry(status, department, roles);
+        }
+    }
+
+    // signed changes to apply together
+    public static final class Delta {
+
+        private final Map<UserStatus, Long> status = new EnumMap<>(UserStatus.class);
+        private final Map<String, Long> department = new HashMap<>();
+        private final Map<String, Long> role = new HashMap<>();
+
+        public Delta status(UserStatus name, long count) {
+            if (name != null && count != 0) {
+                status.merge(name, count, Long::sum);
+            }
+            return this;
+        }
+
+        public Delta department(String name, long count) {
+            if (name != null && count != 0) {
+                department.merge(name, count, Long::sum);
+            }
+            return this;
+        }
+
+        public Delta role(String name, long count) {
+            if (name != null && count != 0) {
+                role.merge(name, count, Long::sum);
+            }
+            return this;
+        }
+
+        public Delta departments(List<GroupCount> counts, long sign) {
+            counts.forEach(count -> department(count.getName(), sign * count.getCount()));
+            return this;
+        }
+
+        public Delta roles(List<GroupCount> counts, long sign) {
+            counts.forEach(count -> role(count.getName(), sign * count.getCount()));
+            return this;
+        }
+
+        public Delta entry(Entry entry, long sign) {
+            status(entry.status(), sign);
+            department(entry.department(), sign);
+            entry.roles().forEach(name -> role(name, sign));
+            return this;
+        }
+    }
+
+    // one query, the same one login uses
+    public Optional<Entry> find(String username) {
+        List<UserPrincipalRow> rows = userRepository.findPrincipalRowsByUsername(username);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        UserPrincipalRow first = rows.get(0);
+        return Optional.of(new Entry(first.getStatus(), first.getDepartmentName(), rows.stream()
+                .map(UserPrincipalRow::getAuthority).filter(a -> a != null).collect(Collectors.toSet())));
+    }
+
+    public void added(Entry entry) {
+        apply(new Delta().entry(entry, 1));
+    }
+
+    public void addedAll(Collection<ApplicationUser> users) {
+        Delta delta = new Delta();
+        users.forEach(user -> delta.entry(Entry.of(user), 1));
+        apply(delta);
+    }
+
+    public void removed(Entry entry) {
+        apply(new Delta().entry(entry, -1));
+    }
+
+    public void changed(Entry before, Entry after) {
+        apply(new Delta().entry(before, -1).entry(after, 1));
+    }
+
+    public void statusChanged(UserStatus from, UserStatus to, long count) {
+        apply(new Delta().status(from, -count).status(to, count));
+    }
+
+    // inside a transaction the delta waits for the commit; a rollback drops it
+    public void apply(Delta delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(delta);
+                }
+            });
+        } else {
+            applyNow(delta);
+        }
+    }
+
+    private synchronized void applyNow(Delta delta) {
+        delta.status.forEach((name, count) -> byStatus.merge(name, count, Long::sum));
+        delta.department.forEach((name, count) -> byDepartment.merge(name, count, Long::sum));
+        delta.role.forEach((name, count) -> byRole.merge(name, count, Long::sum));
+        deltas++;
+    }
+
+    // for writes whose effect on the counters is not known; the next read rebuilds them
+    public void markStale() {
+        stale = true;
+    }
+
+    public Map<String, Object> counts() {
+        if (stale) {
+            synchronized (rebuildLock) {
+                if (stale) {
+                    reconcile();
+                }
+            }
+        }
+        synchronized (this) {
+            reads++;
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("total", byStatus.values().stream().mapToLong(Long::longValue).sum());
+            counts.put("byStatus", nonZero(byStatus));
+            counts.put("byDepartment", nonZero(byDepartment));
+            counts.put("byRole", nonZero(byRole));
+            counts.put("reconciledAt", reconciledAt);
+            return counts;
+        }
+    }
+
+    // replaces the counters with SQL aggregates; returns how far they had drifted
+    @Scheduled(initialDelayString = "${userapp.directory-stats.reconcile-interval:PT15M}",
+            fixedDelayString = "${userapp.directory-stats.reconcile-interval:PT15M}")
+    public long reconcile() {
+        // a read that finds the counters stale may be rebuilding them already
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            // a rebuild after markStale() is expected to change the counters; that is not drift
+            boolean wasStale = stale;
+            stale = false;
+            List<GroupCount> statusCounts = userRepository.countGroupedByStatus();
+            List<GroupCount> departmentCounts = userRepository.countGroupedByDepartment();
+            List<GroupCount> roleCounts = userRepository.countGroupedByRole();
+
+            Map<UserStatus, Long> status = new EnumMap<>(UserStatus.class);
+            statusCounts.forEach(count -> status.put(UserStatus.valueOf(count.getName()), count.getCount()));
+            Map<String, Long> department = new TreeMap<>();
+            departmentCounts.forEach(count -> department.put(count.getName(), count.getCount()));
+            Map<String, Long> role = new TreeMap<>();
+            roleCounts.forEach(count -> role.put(count.getName(), count.getCount()));
+
+            synchronized (this) {
+                long drift = wasStale ? 0
+                        : drift(byStatus, status) + drift(byDepartment, department) + drift(byRole, role);
+                replace(byStatus, status);
+                replace(byDepartment, department);
+                replace(byRole, role);
+                reconciledAt = Instant.now();
+                reconciles++;
+                lastDrift = drift;
+                totalDrift += drift;
+                lastReconcileMillis = (System.nanoTime() - started) / 1_000_000;
+                if (drift != 0) {
+                    System.out.println("Directory stats corrected by " + drift + " in " + lastReconcileMillis + " ms");
+                }
+                return drift;
+            }
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("stale", stale);
+        stats.put("reconciledAt", reconciledAt);
+        stats.put("reads", reads);
+        stats.put("deltas", deltas);
+        stats.put("reconciles", reconciles);
+        stats.put("lastReconcileMillis", lastReconcileMillis);
+        stats.put("lastDrift", lastDrift);
+        stats.put("totalDrift", totalDrift);
+        return stats;
+    }
+
+    private static <K> long drift(Map<K, Long> current, Map<K, Long> actual) {
+        long drift = 0;
+        for (Map.Entry<K, Long> entry : current.entrySet()) {
+            drift += Math.abs(entry.getValue() - actual.getOrDefault(entry.getKey(), 0L));
+        }
+        for (Map.Entry<K, Long> entry : actual.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                drift += entry.getValue();
+            }
+        }
+        return drift;
+    }
+
+    private static <K> void replace(Map<K, Long> current, Map<K, Long> actual) {
+        current.clear();
+        current.putAll(actual);
+    }
+
+    private static <K> Map<K, Long> nonZero(Map<K, Long> counts) {
+        Map<K, Long> copy = new LinkedHashMap<>();
+        counts.forEach((name, count) -> {
+            if (count != 0) {
+                copy.put(name, count);
+            }
+        });
+        return copy;
+    }
+}
@@ -0,0 +1,230 @@
+package com.shivu.userapplication.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.shivu.userapplication.model.OutboxMail;
+import com.shivu.userapplication.model.OutboxMail.Status;
+import com.shivu.userapplication.repository.OutboxMailRepository;
+import com.shivu.userapplication.utils.LatencyHistogram;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/*
+ * Drains mail_outbox in the background. Each run claims up to batch-size due
+ * rows (a claim UPDATE, so several nodes can dispatch side by side) and hands
+ * them to JavaMailSender as one batch, which delivers the whole batch over a
+ * single SMTP connection. A claim is a lease: a run slower than claim-lease
+ * loses its rows to the next run, which may send them again, and its own
+ * bookkeeping updates then match nothing (counted as lostClaims). A failed message is retried after
+ * retry-backoff, doubling per attempt up to max-backoff, and given up as
+ * FAILED after max-attempts. Nothing is sent when no spring.mail.host is set.
+ *
+ * A SENT or FAILED row keeps no body (it may carry a password-reset link), and
+ * is deleted by purgeFinished() once it is older than retention.
+ */
+@Service
+public class MailDispatcher {
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Autowired
+    private ObjectProvider<JavaMailSender> mailSender;
+
+    @Value("${userapp.mail.from:no-reply@localhost}")
+    private String from;
+
+    @Value("${userapp.mail.batch-size:50}")
+    private int batchSize;
+
+    @Value("${userapp.mail.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${userapp.mail.retry-backoff:PT30S}")
+    private Duration retryBackoff;
+
+    @Value("${userapp.mail.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    // how long a claimed batch is held before another run may take it over
+    @Value("${userapp.mail.claim-lease:PT5M}")
+    private Duration claimLease;
+
+    @Value("${userapp.mail.retention:P7D}")
+    private Duration retention;
+
+    @Value("${userapp.mail.purge-chunk-size:1000}")
+    private int purgeChunkSize;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    // batches that outlived claim-lease; raise the lease if this grows
+    private final AtomicLong lostClaims = new AtomicLong();
+    private final AtomicLong purged = new AtomicLong();
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+    // enqueue to delivery
+    private final LatencyHistogram deliveryDelay = new LatencyHistogram();
+
+    @Scheduled(fixedDelayString = "${userapp.mail.dispatch-interval:PT5S}")
+    public void dispatchScheduled() {
+        if (mailSender.getIfAvailable() != null) {
+            dispatch();
+        }
+    }
+
+    // sends everything due now; returns how many were delivered
+    public synchronized int dispatch() {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            return 0;
+        }
+        int delivered = 0;
+        while (true) {
+            Instant now = Instant.now();
+            List<Long> ids = outboxMailRepository.findDueIds(Status.PENDING, now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return delivered;
+            }
+            String claim = UUID.randomUUID().toString();
+            if (outboxMailRepository.claim(ids, Status.PENDING, claim, now, now.plus(claimLease)) > 0) {
+                delivered += send(sender, claim, outboxMailRepository.findByClaim(claim));
+            }
+            if (ids.size() < batchSize) {
+                return delivered;
+            }
+        }
+    }
+
+    private int send(JavaMailSender sender, String claim, List<OutboxMail> batch) {
+        long started = System.nanoTime();
+        Map<MimeMessage, OutboxMail> messages = new IdentityHashMap<>();
+        Map<OutboxMail, Exception> failures = new LinkedHashMap<>();
+        for (OutboxMail mail : batch) {
+            try {
+                MimeMessage message = sender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+                helper.setFrom(from);
+                helper.setTo(mail.getRecipient());
+                helper.setSubject(mail.getSubject());
+                helper.setText(mail.getBody(), true);
+                messages.put(message, mail);
+            } catch (MessagingException e) {
+                failures.put(mail, e);
+            }
+        }
+        if (!messages.isEmpty()) {
+            try {
+                sender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                // per-message failures; anything not listed went out
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(mail -> failures.put(mail, e));
+                } else {
+                    e.getFailedMessages().forEach((message, cause) -> failures.put(messages.get(message), cause));
+                }
+            } catch (MailException e) {
+                messages.values().forEach(mail -> failures.put(mail, e));
+            }
+        }
+
+        Instant now = Instant.now();
+        List<Long> sentIds = new ArrayList<>();
+        for (OutboxMail mail : batch) {
+            Exception cause = failures.get(mail);
+            if (cause == null) {
+                sentIds.add(mail.getId());
+                deliveryDelay.record(Duration.between(mail.getCreatedAt(), now).toNanos());
+            } else {
+                recordFailure(mail, claim, cause, now);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            int marked = outboxMailRepository.markSent(sentIds, claim, Status.SENT, now);
+            if (marked < sentIds.size()) {
+                lostClaims.addAndGet(sentIds.size() - marked);
+                System.out.println((sentIds.size() - marked) + " mails were sent after their claim lapsed; "
+                        + "another run owns them now");
+            }
+            sent.addAndGet(sentIds.size());
+        }
+        batchLatency.record(System.nanoTime() - started);
+        return sentIds.size();
+    }
+
+    private void recordFailure(OutboxMail mail, String claim, Exception cause, Instant now) {
+        int attempts = mail.getAttempts() + 1;
+        String error = String.valueOf(cause.getMessage());
+        error = error.length() > 500 ? error.substring(0, 500) : error;
+        boolean giveUp = attempts >= maxAttempts;
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        Instant nextAttemptAt = now.plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff);
+        int marked = giveUp ? outboxMailRepository.markGivenUp(mail.getId(), claim, Status.FAILED, now, error)
+                : outboxMailRepository.markAttemptFailed(mail.getId(), claim, Status.PENDING, nextAttemptAt, error);
+        if (marked == 0) {
+            // the claim lapsed and another run has the row; its outcome stands
+            lostClaims.incrementAndGet();
+            System.out.println("Mail " + mail.getId() + " failed after its claim lapsed");
+        } else if (giveUp) {
+            failed.incrementAndGet();
+            // no recipient or SMTP text on stdout; the error is kept in last_error
+            System.out.println("Giving up on mail " + mail.getId() + " after " + attempts + " attempts");
+        } else {
+            retried.incrementAndGet();
+        }
+    }
+
+    // chunked so a large backlog never becomes one long-running DELETE
+    @Scheduled(fixedDelayString = "${userapp.mail.purge-interval:PT1H}")
+    public int purgeFinished() {
+        Instant before = Instant.now().minus(retention);
+        int deleted = 0;
+        List<Long> ids;
+        do {
+            ids = outboxMailRepository.findFinishedIds(List.of(Status.SENT, Status.FAILED), before,
+                    PageRequest.of(0, purgeChunkSize));
+            if (!ids.isEmpty()) {
+                deleted += outboxMailRepository.deleteByIdIn(ids);
+            }
+        } while (ids.size() == purgeChunkSize);
+        if (deleted > 0) {
+            purged.addAndGet(deleted);
+            System.out.println("Purged " + deleted + " finished outbox mails");
+        }
+        return deleted;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", mailSender.getIfAvailable() != null);
+        stats.put("pending", outboxMailRepository.countByStatus(Status.PENDING));
+        stats.put("sent", sent.get());
+        stats.put("retried", retried.get());
+        stats.put("failed", failed.get());
+        stats.put("lostClaims", lostClaims.get());
+        stats.put("purged", purged.get());
+        stats.put("batchLatency", batchLatency.snapshot());
+        stats.put("deliveryDelay", deliveryDelay.snapshot());
+        return stats;
+    }
+}
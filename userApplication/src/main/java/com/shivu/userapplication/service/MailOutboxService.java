@@ -0,0 +1,56 @@
+package com.shivu.userapplication.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import com.shivu.userapplication.model.OutboxMail;
+import com.shivu.userapplication.repository.OutboxMailRepository;
+
+/*
+ * Writes outgoing emails to the mail_outbox table. Call it inside the
+ * transaction that makes the change the email announces: the row commits or
+ * rolls back with it, and MailDispatcher delivers it afterwards.
+ */
+@Service
+public class MailOutboxService {
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Transactional
+    public void enqueue(String recipient, String subject, String htmlBody) {
+        outboxMailRepository.save(new OutboxMail(recipient, subject, htmlBody));
+    }
+
+    // one batched insert for the lot
+    @Transactional
+    public void enqueueAll(List<OutboxMail> mails) {
+        outboxMailRepository.saveAll(mails);
+    }
+
+    public void enqueuePasswordReset(String recipient, String link) {
+        enqueue(recipient, "Here's the link to reset your password", "<p>Hello,</p>"
+                + "<p>You have requested to reset your password.</p>"
+                + "<p>Click the link below to change your password:</p>"
+                + "<p><a href=\"" + HtmlUtils.htmlEscape(link) + "\">Change my password</a></p>"
+                + "<br>"
+                + "<p>Ignore this email if you do remember your password, "
+                + "or you have not made the request.</p>");
+    }
+
+    public static OutboxMail approvalNotice(String recipient, String username) {
+        return new OutboxMail(recipient, "Your account has been approved",
+                "<p>Hello " + HtmlUtils.htmlEscape(username) + ",</p>"
+                        + "<p>Your registration has been approved. You can now sign in.</p>");
+    }
+
+    public static OutboxMail rejectionNotice(String recipient, String username) {
+        return new OutboxMail(recipient, "Your registration was not approved",
+                "<p>Hello " + HtmlUtils.htmlEscape(username) + ",</p>"
+                        + "<p>Your registration has been reviewed and was not approved.</p>");
+    }
+}
@@ -0,0 +1,112 @@
+package com.shivu.userapplication.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.shivu.userapplication.exception.UserNotFoundException;
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.PasswordResetToken;
+import com.shivu.userapplication.repository.PasswordResetTokenRepository;
+import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.utils.TokenUtility;
+
+/*
+ * Password-reset links. A link's token is looked up through the unique index
+ * on its digest, so checking one costs the same however many users there are;
+ * it works once, until reset-token-ttl, and issuing a new one for the same
+ * user replaces the old. Expired rows are purged in batches in the background.
+ */
+@Service
+public class PasswordResetService {
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Value("${userapp.password-reset.token-ttl:PT30M}")
+    private Duration tokenTtl;
+
+    @Value("${userapp.password-reset.purge-chunk-size:1000}")
+    private int purgeChunkSize;
+
+    // returns the token to put in the link
+    @Transactional
+    public String issue(String email) throws UserNotFoundException {
+        ApplicationUser user = userRepository.findByEmail(email);
+        if (user == null) {
+            throw new UserNotFoundException("Could not find any customer with the email " + email);
+        }
+        String token = TokenUtility.newToken();
+        passwordResetTokenRepository.deleteByUsername(user.getUsername());
+        passwordResetTokenRepository.save(new PasswordResetToken(TokenUtility.digest(token), user.getUsername(),
+                Instant.now().plus(tokenTtl)));
+        return token;
+    }
+
+    // issues a token and queues the email carrying its link, both in one transaction
+    @Transactional
+    public void sendResetLink(String email, String siteUrl) throws UserNotFoundException {
+        String token = issue(email);
+        mailOutboxService.enqueuePasswordReset(email, siteUrl + "/resetpassword?token=" + token);
+    }
+
+    // empty for an unknown, used or expired token
+    public Optional<ApplicationUser> findUser(String token) {
+        return findValid(token).flatMap(stored -> userRepository.findByUsername(stored.getUsername()));
+    }
+
+    // false if the token was not (or no longer) valid
+    @Transactional
+    public boolean resetPassword(String token, String newPassword) {
+        Optional<PasswordResetToken> stored = findValid(token);
+        if (stored.isEmpty() || passwordResetTokenRepository.consume(stored.get().getId(), Instant.now()) == 0) {
+            return false;
+        }
+        Optional<ApplicationUser> user = userRepository.findByUsername(stored.get().getUsername());
+        user.ifPresent(u -> userService.updatePassword(u, newPassword));
+        return user.isPresent();
+    }
+
+    private Optional<PasswordResetToken> findValid(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        return passwordResetTokenRepository.findByTokenHash(TokenUtility.digest(token))
+                .filter(stored -> !stored.isUsed() && stored.getExpiresAt().isAfter(Instant.now()));
+    }
+
+    // chunked so a large backlog never becomes one long-running DELETE
+    @Scheduled(fixedDelayString = "${userapp.password-reset.purge-interval:PT1H}")
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int purged = 0;
+        List<Long> ids;
+        do {
+            ids = passwordResetTokenRepository.findExpiredIds(now, PageRequest.of(0, purgeChunkSize));
+            if (!ids.isEmpty()) {
+                purged += passwordResetTokenRepository.deleteByIdIn(ids);
+            }
+        } while (ids.size() == purgeChunkSize);
+        if (purged > 0) {
+            System.out.println("Purged " + purged + " expired password reset tokens");
+        }
+        return purged;
+    }
+}
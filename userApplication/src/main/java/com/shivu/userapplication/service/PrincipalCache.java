@@ -0,0 +1,63 @@
+package com.shivu.userapplication.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.shivu.userapplication.model.UserPrincipal;
+import com.shivu.userapplication.utils.BoundedCache;
+
+/*
+ * Username -> UserPrincipal snapshots for the login path. Every code path that
+ * changes a user's password, status, roles, department or name must call
+ * invalidate() once its write has been saved.
+ */
+@Component
+public class PrincipalCache {
+
+    private final BoundedCache<String, UserPrincipal> cache;
+
+    // notified with the username (null for "everyone") whenever a user changes
+    private final List<Consumer<String>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    public PrincipalCache(@Value("${userapp.principal-cache.max-size:10000}") int maxSize,
+            @Value("${userapp.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new BoundedCache<>(maxSize, ttlSeconds * 1000L);
+    }
+
+    public UserPrincipal get(String username, Supplier<UserPrincipal> loader) {
+        UserPrincipal principal = cache.get(username);
+        if (principal != null) {
+            return principal;
+        }
+        long generation = cache.generation();
+        principal = loader.get();
+        cache.putIfCurrent(username, principal, generation);
+        return principal;
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+            invalidationListeners.forEach(listener -> listener.accept(username));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        invalidationListeners.forEach(listener -> listener.accept(null));
+    }
+
+    public void addInvalidationListener(Consumer<String> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+}
@@ -1,26 +1,78 @@
 package com.shivu.userapplication.service;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.shivu.userapplication.model.ApplicationUser;
 import com.shivu.userapplication.model.ApplicationUser.UserStatus;
-
-import jakarta.annotation.PostConstruct;
 import com.shivu.userapplication.model.Department;
 import com.shivu.userapplication.model.Role;
+import com.shivu.userapplication.model.SeedVersion;
 import com.shivu.userapplication.repository.DepartmentRepository;
 import com.shivu.userapplication.repository.RoleRepository;
+import com.shivu.userapplication.repository.SeedVersionRepository;
 import com.shivu.userapplication.repository.UserRepository;
 
+/*
+ * Built-in roles, departments and default users. The database records which
+ * SEED_VERSION it holds (seed_versions), so a restart costs one primary-key
+ * lookup; only a new version, or an empty database, does any work. When it
+ * does, each table is one IN query for what exists plus one batched insert
+ * for what is missing. Existing users are never re-hashed: a default user
+ * whose password was changed keeps it.
+ *
+ * Runs after the application is ready, on its own thread when
+ * userapp.seed.async is set, so it never delays serving traffic.
+ */
 @Service
 public class RBACService {
 
+        // bump when the lists below change
+        static final int SEED_VERSION = 1;
+        static final String SEED_NAME = "rbac";
+
+        private static final List<String> ROLES = List.of("ADMIN", "USER", "PAYROLL", "HR", "FINANCE", "SALES",
+                        "GENERAL", "IT");
+
+        private static final List<String> DEPARTMENTS = List.of("ADMIN", "USER", "PAYROLL", "HR", "FINANCE",
+                        "SALES", "GENERAL", "IT");
+
+        private static final String DEFAULT_PASSWORD = "password";
+
+        // username -> role and department
+        private static final Map<String, String> DEFAULT_USERS = defaultUsers();
+
+        private static Map<String, String> defaultUsers() {
+                Map<String, String> users = new LinkedHashMap<>();
+                users.put("testUser", "PAYROLL");
+                users.put("payroll1", "PAYROLL");
+                users.put("payroll2", "PAYROLL");
+                users.put("hr1", "HR");
+                users.put("hr2", "HR");
+                users.put("finance1", "FINANCE");
+                users.put("finance2", "FINANCE");
+                users.put("sales1", "SALES");
+                users.put("sales2", "SALES");
+                users.put("it1", "IT");
+                users.put("it2", "IT");
+                return users;
+        }
+
         @Autowired
         UserRepository userRepository;
 
@@ -31,131 +83,136 @@ public class RBACService {
         DepartmentRepository departmentRepository;
 
         @Autowired
-        org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
-
-        @PostConstruct
-        public void ensureAdminUsersAreActive() {
-                // Fix for existing admin users who may have PENDING status
-                userRepository.findAll().stream()
-                                .filter(user -> user.getAuthorities().stream()
-                                                .anyMatch(role -> role.getAuthority().equals("ROLE_ADMIN")))
-                                .filter(user -> user.getStatus() != UserStatus.ACTIVE)
-                                .forEach(user -> {
-                                        user.setStatus(UserStatus.ACTIVE);
-                                        userRepository.save(user);
-                                        System.out.println("Activated admin user: " + user.getUsername());
-                                });
-
-                // Ensure default users exist, have correct password, and are ACTIVE
-                ensureDefaultUsersExist();
-        }
+        SeedVersionRepository seedVersionRepository;
 
-        private void ensureDefaultUsersExist() {
-                if (roleRepository.count() == 0 || departmentRepository.count() == 0) {
-                        initialize(); // Ensure roles/depts exist first
-                }
-
-                String password = "password";
+        @Autowired
+        ReferenceDataService referenceDataService;
 
-                // Create or Update Default Users
-                createOrUpdateUser("testUser", "PAYROLL", "PAYROLL", password);
+        @Autowired
+        DirectoryStatsService directoryStatsService;
 
-                createOrUpdateUser("payroll1", "PAYROLL", "PAYROLL", password);
-                createOrUpdateUser("payroll2", "PAYROLL", "PAYROLL", password);
+        @Autowired
+        PrincipalCache principalCache;
 
-                createOrUpdateUser("hr1", "HR", "HR", password);
-                createOrUpdateUser("hr2", "HR", "HR", password);
+        @Autowired
+        org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
 
-                createOrUpdateUser("finance1", "FINANCE", "FINANCE", password);
-                createOrUpdateUser("finance2", "FINANCE", "FINANCE", password);
+        @Value("${userapp.seed.async:false}")
+        private boolean async;
 
-                createOrUpdateUser("sales1", "SALES", "SALES", password);
-                createOrUpdateUser("sales2", "SALES", "SALES", password);
+        private final TransactionTemplate transactionTemplate;
 
-                createOrUpdateUser("it1", "IT", "IT", password);
-                createOrUpdateUser("it2", "IT", "IT", password);
+        public RBACService(PlatformTransactionManager transactionManager) {
+                this.transactionTemplate = new TransactionTemplate(transactionManager);
         }
 
-        private void createOrUpdateUser(String username, String roleName, String deptName, String plainPassword) {
-                // Check if user exists
-                userRepository.findByUsername(username).ifPresentOrElse(
-                                user -> {
-                                        // Update User
-                                        user.setPassword(passwordEncoder.encode(plainPassword));
-                                        if (user.getStatus() != UserStatus.ACTIVE) {
-                                                user.setStatus(UserStatus.ACTIVE);
-                                        }
-                                        userRepository.save(user);
-                                        System.out.println("Updated default user: " + username);
-                                },
-                                () -> {
-                                        // Create New User
-                                        Department dept = departmentRepository.findFirstByDepartmentName(deptName)
-                                                        .orElseGet(() -> departmentRepository
-                                                                        .save(new Department(deptName)));
-
-                                        Set<Role> roles = new HashSet<>();
-                                        roleRepository.findFirstByAuthority(roleName).ifPresent(roles::add);
-                                        roleRepository.findFirstByAuthority("GENERAL").ifPresent(roles::add);
-
-                                        String encoded = passwordEncoder.encode(plainPassword);
-
-                                        // Use constructor without ID to let DB generate unique ID
-                                        ApplicationUser newUser = new ApplicationUser(
-                                                        username,
-                                                        encoded,
-                                                        roles,
-                                                        dept,
-                                                        username + "@email.com",
-                                                        null);
-                                        newUser.setStatus(UserStatus.ACTIVE);
-                                        userRepository.save(newUser);
-                                        System.out.println("Created default user: " + username);
-                                });
+        @EventListener(ApplicationReadyEvent.class)
+        public void onApplicationReady() {
+                if (async) {
+                        Thread seeder = new Thread(this::seedSafely, "rbac-seed");
+                        seeder.setDaemon(true);
+                        seeder.start();
+                } else {
+                        seed();
+                }
         }
 
-        public void initialize() {
-                // Only initialize if roles don't exist yet
-                if (roleRepository.count() == 0) {
-                        initialiseRoles();
+        private void seedSafely() {
+                try {
+                        seed();
+                } catch (RuntimeException e) {
+                        System.out.println("RBAC seed failed: " + e);
                 }
-                if (departmentRepository.count() == 0) {
-                        initialiseDepartments();
+        }
+
+        // returns true if anything was applied
+        public boolean seed() {
+                long started = System.nanoTime();
+                Boolean applied = transactionTemplate.execute(tx -> {
+                        SeedVersion marker = seedVersionRepository.findById(SEED_NAME).orElse(null);
+                        if (marker != null && marker.getVersion() >= SEED_VERSION) {
+                                return false;
+                        }
+                        activateAdmins();
+                        Map<String, Role> roles = seedRoles();
+                        Map<String, Department> departments = seedDepartments();
+                        seedUsers(roles, departments);
+                        if (marker == null) {
+                                marker = new SeedVersion(SEED_NAME, SEED_VERSION, Instant.now());
+                        } else {
+                                marker.setVersion(SEED_VERSION);
+                                marker.setAppliedAt(Instant.now());
+                        }
+                        seedVersionRepository.save(marker);
+                        return true;
+                });
+                if (Boolean.TRUE.equals(applied)) {
+                        referenceDataService.invalidate();
+                        directoryStatsService.markStale();
+                        // admins and default users may have been re-activated; seeding is rare, so drop everyone
+                        principalCache.invalidateAll();
                 }
+                long millis = (System.nanoTime() - started) / 1_000_000;
+                System.out.println(Boolean.TRUE.equals(applied)
+                                ? "RBAC seed v" + SEED_VERSION + " applied in " + millis + " ms"
+                                : "RBAC seed v" + SEED_VERSION + " already applied, checked in " + millis + " ms");
+                return Boolean.TRUE.equals(applied);
         }
 
-        public void initialiseRoles() {
-                saveRoleIfNotExists("ADMIN");
-                saveRoleIfNotExists("USER");
-                saveRoleIfNotExists("PAYROLL");
-                saveRoleIfNotExists("HR");
-                saveRoleIfNotExists("FINANCE");
-                saveRoleIfNotExists("SALES");
-                saveRoleIfNotExists("GENERAL");
-                saveRoleIfNotExists("IT");
+        private void activateAdmins() {
+                // Fix for existing admin users who may have PENDING status; role names carry no ROLE_ prefix
+                userRepository.findByAuthorityAndStatusNot("ADMIN", UserStatus.ACTIVE)
+                                .forEach(user -> {
+                                        user.setStatus(UserStatus.ACTIVE);
+                                        userRepository.save(user);
+                                        System.out.println("Activated admin user: " + user.getUsername());
+                                });
         }
 
-        private void saveRoleIfNotExists(String authority) {
-                if (roleRepository.findFirstByAuthority(authority).isEmpty()) {
-                        roleRepository.save(new Role(authority));
-                }
+        private Map<String, Role> seedRoles() {
+                Map<String, Role> roles = roleRepository.findByAuthorityIn(ROLES).stream()
+                                .collect(Collectors.toMap(Role::getAuthority, Function.identity(), (a, b) -> a));
+                List<Role> missing = ROLES.stream().filter(name -> !roles.containsKey(name)).map(Role::new).toList();
+                roleRepository.saveAll(missing).forEach(role -> roles.put(role.getAuthority(), role));
+                return roles;
         }
 
-        public void initialiseDepartments() {
-                saveDeptIfNotExists("ADMIN");
-                saveDeptIfNotExists("USER");
-                saveDeptIfNotExists("PAYROLL");
-                saveDeptIfNotExists("HR");
-                saveDeptIfNotExists("FINANCE");
-                saveDeptIfNotExists("SALES");
-                saveDeptIfNotExists("GENERAL");
-                saveDeptIfNotExists("IT");
+        private Map<String, Department> seedDepartments() {
+                Map<String, Department> departments = departmentRepository.findByDepartmentNameIn(DEPARTMENTS).stream()
+                                .collect(Collectors.toMap(Department::getDepartmentName, Function.identity(),
+                                                (a, b) -> a));
+                List<Department> missing = DEPARTMENTS.stream().filter(name -> !departments.containsKey(name))
+                                .map(Department::new).toList();
+                departmentRepository.saveAll(missing)
+                                .forEach(department -> departments.put(department.getDepartmentName(), department));
+                return departments;
         }
 
-        private void saveDeptIfNotExists(String deptName) {
-                if (departmentRepository.findFirstByDepartmentName(deptName).isEmpty()) {
-                        departmentRepository.save(new Department(deptName));
+        private void seedUsers(Map<String, Role> roles, Map<String, Department> departments) {
+                Set<String> existing = new HashSet<>();
+                userRepository.findByUsernameIn(DEFAULT_USERS.keySet())
+                                .forEach(user -> existing.add(user.getUsername()));
+
+                List<ApplicationUser> created = new ArrayList<>();
+                for (Map.Entry<String, String> entry : DEFAULT_USERS.entrySet()) {
+                        String username = entry.getKey();
+                        if (existing.contains(username)) {
+                                continue;
+                        }
+                        Set<Role> userRoles = new HashSet<>();
+                        userRoles.add(roles.get(entry.getValue()));
+                        userRoles.add(roles.get("GENERAL"));
+                        // hashed only for users that do not exist yet
+                        ApplicationUser newUser = new ApplicationUser(username, passwordEncoder.encode(DEFAULT_PASSWORD),
+                                        userRoles, departments.get(entry.getValue()), username + "@email.com", null);
+                        newUser.setStatus(UserStatus.ACTIVE);
+                        created.add(newUser);
                 }
-        }
+                userRepository.saveAll(created);
 
+                int activated = existing.isEmpty() ? 0
+                                : userRepository.updateStatusByUsernameIn(existing, UserStatus.ACTIVE);
+                System.out.println("Default users: " + created.size() + " created, " + activated + " re-activated, "
+                                + (existing.size() - activated) + " unchanged");
+        }
 }
@@ -0,0 +1,133 @@
+package com.shivu.userapplication.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.shivu.userapplication.exception.TooManyRequestsException;
+import com.shivu.userapplication.utils.TokenBucketLimiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/*
+ * Rate limits for the unauthenticated endpoints that hit the database or
+ * BCrypt. Every endpoint has one bucket per client IP and one per account
+ * identity (username or email), so neither a single client nor a distributed
+ * attack on one account gets past the limit. For logins the identity bucket
+ * is only charged by wrong credentials (checkFailures/recordFailure), so the
+ * owner's own successful logins never use it up. The trade-off remains: once
+ * anyone has guessed wrong capacity times within the period (5/PT1M by
+ * default), that username is refused for everyone, its owner included, until
+ * the bucket refills. Guessing is slowed at the cost of that lockout window.
+ *
+ * Limits are "<capacity>/<ISO-8601 period>", e.g. userapp.ratelimit.login.per-ip=20/PT1M.
+ */
+@Component
+public class RateLimiter {
+
+    public static final String LOGIN = "login";
+    public static final String REGISTER = "register";
+    public static final String FORGOT_PASSWORD = "forgotpassword";
+
+    private static final Map<String, String[]> DEFAULTS = Map.of(
+            LOGIN, new String[] { "20/PT1M", "5/PT1M" },
+            REGISTER, new String[] { "10/PT1H", "3/PT1H" },
+            FORGOT_PASSWORD, new String[] { "10/PT1H", "3/PT1H" });
+
+    private final Map<String, TokenBucketLimiter> limiters = new LinkedHashMap<>();
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+
+    public RateLimiter(Environment environment,
+            @Value("${userapp.ratelimit.enabled:true}") boolean enabled,
+            @Value("${userapp.ratelimit.trust-forwarded-for:false}") boolean trustForwardedFor) {
+        this.enabled = enabled;
+        this.trustForwardedFor = trustForwardedFor;
+        for (String endpoint : new String[] { LOGIN, REGISTER, FORGOT_PASSWORD }) {
+            String[] defaults = DEFAULTS.get(endpoint);
+            limiters.put(endpoint + ".per-ip", limiter(environment.getProperty(
+                    "userapp.ratelimit." + endpoint + ".per-ip", defaults[0])));
+            limiters.put(endpoint + ".per-identity", limiter(environment.getProperty(
+                    "userapp.ratelimit." + endpoint + ".per-identity", defaults[1])));
+        }
+    }
+
+    private static TokenBucketLimiter limiter(String spec) {
+        String[] parts = spec.split("/", 2);
+        if (parts.length != 2) {
+            throw new IllegalStateException("Rate limit must look like 20/PT1M, got " + spec);
+        }
+        return new TokenBucketLimiter(Integer.parseInt(parts[0].trim()), Duration.parse(parts[1].trim()));
+    }
+
+    /** Throws TooManyRequestsException (429 with Retry-After) when either bucket is empty. */
+    public void check(String endpoint, HttpServletRequest request, String... identities) {
+        if (!enabled) {
+            return;
+        }
+        acquire(endpoint + ".per-ip", clientIp(request));
+        for (String identity : identities) {
+            if (identity != null && !identity.isBlank()) {
+                acquire(endpoint + ".per-identity", identity.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    /** Charges the per-IP bucket; the identity bucket is only checked, failures spend it via recordFailure. */
+    public void checkFailures(String endpoint, HttpServletRequest request, String identity) {
+        if (!enabled) {
+            return;
+        }
+        acquire(endpoint + ".per-ip", clientIp(request));
+        if (identity != null && !identity.isBlank()) {
+            reject(limiters.get(endpoint + ".per-identity").peek(identity.trim().toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    public void recordFailure(String endpoint, String identity) {
+        if (enabled && identity != null && !identity.isBlank()) {
+            // an empty bucket just stays empty; this attempt already got its answer
+            limiters.get(endpoint + ".per-identity").tryAcquire(identity.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private void acquire(String limiter, String key) {
+        reject(limiters.get(limiter).tryAcquire(key));
+    }
+
+    private static void reject(long waitNanos) {
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+            throw new TooManyRequestsException("Too many attempts, please retry later", retryAfterSeconds);
+        }
+    }
+
+    // X-Forwarded-For is client-controlled, so it is only honoured behind a trusted proxy
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                return forwarded.split(",", 2)[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    @Scheduled(fixedDelayString = "${userapp.ratelimit.sweep-interval:PT1M}")
+    public void evictIdleBuckets() {
+        limiters.values().forEach(TokenBucketLimiter::sweep);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        limiters.forEach((name, limiter) -> stats.put(name, limiter.stats()));
+        return stats;
+    }
+}
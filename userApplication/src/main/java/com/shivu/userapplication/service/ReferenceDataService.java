@@ -0,0 +1,123 @@
+package com.shivu.userapplication.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.shivu.userapplication.model.Department;
+import com.shivu.userapplication.model.Role;
+import com.shivu.userapplication.repository.DepartmentRepository;
+import com.shivu.userapplication.repository.RoleRepository;
+
+/*
+ * Roles and departments served from memory. Both tables are a handful of rows
+ * that only change through seeding or a new department name, so the whole of
+ * each is held as one immutable snapshot: loaded with two queries on first use,
+ * swapped atomically, dropped by invalidate() after any write and, as a
+ * backstop for rows added by another node, after ttl-seconds. Callers get a
+ * fresh detached entity carrying the id, which is all an association needs to
+ * write its foreign key.
+ */
+@Service
+public class ReferenceDataService {
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private final long ttlNanos;
+
+    private volatile Snapshot snapshot;
+
+    // bumped by invalidate() so a load that raced with a write is not published
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ReferenceDataService(@Value("${userapp.reference-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    private record Snapshot(Map<String, Integer> roleIds, Map<String, Integer> departmentIds, long loadedAt) {
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt() < ttlNanos) {
+            hits.incrementAndGet();
+            return current;
+        }
+        long loadGeneration = generation.get();
+        loads.incrementAndGet();
+        Map<String, Integer> roleIds = new LinkedHashMap<>();
+        roleRepository.findAll().forEach(role -> roleIds.putIfAbsent(role.getAuthority(), role.getRoleId()));
+        Map<String, Integer> departmentIds = new LinkedHashMap<>();
+        departmentRepository.findAll().forEach(
+                department -> departmentIds.putIfAbsent(department.getDepartmentName(), department.getDepartmentId()));
+        Snapshot loaded = new Snapshot(Collections.unmodifiableMap(roleIds),
+                Collections.unmodifiableMap(departmentIds), System.nanoTime());
+        if (generation.get() == loadGeneration) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+
+    // creates the department on first use, as registration always has
+    public Department departmentFor(String departmentName) {
+        Integer id = snapshot().departmentIds().get(departmentName);
+        if (id == null) {
+            Department department = departmentRepository.findFirstByDepartmentName(departmentName)
+                    .orElseGet(() -> departmentRepository.save(new Department(departmentName)));
+            id = department.getDepartmentId();
+            invalidate();
+        }
+        return new Department(id, departmentName);
+    }
+
+    // null for an unknown role; roles are never created implicitly
+    public Role roleFor(String authority) {
+        Integer id = snapshot().roleIds().get(authority);
+        return id == null ? null : new Role(id, authority);
+    }
+
+    // in id order
+    public List<String> roleNames() {
+        return new ArrayList<>(snapshot().roleIds().keySet());
+    }
+
+    public Set<String> departmentNames() {
+        return Set.copyOf(snapshot().departmentIds().keySet());
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+        snapshot = null;
+    }
+
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        long h = hits.get();
+        long l = loads.get();
+        return Map.of(
+                "roles", current == null ? 0 : current.roleIds().size(),
+                "departments", current == null ? 0 : current.departmentIds().size(),
+                "ttlMillis", ttlNanos / 1_000_000L,
+                "hits", h,
+                "loads", l,
+                "hitRatio", h + l == 0 ? 0.0 : (double) h / (h + l),
+                "invalidations", invalidations.get());
+    }
+}
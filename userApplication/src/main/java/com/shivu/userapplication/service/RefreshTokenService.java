@@ -0,0 +1,94 @@
+package com.shivu.userapplication.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.shivu.userapplication.model.RefreshToken;
+import com.shivu.userapplication.repository.RefreshTokenRepository;
+import com.shivu.userapplication.utils.TokenUtility;
+
+/*
+ * Opaque, single-use refresh tokens. Each refresh revokes the presented token
+ * and issues its successor in the same family; presenting a token that was
+ * already rotated out means it leaked, so the whole family is revoked.
+ */
+@Service
+public class RefreshTokenService {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${userapp.jwt.refresh-token-ttl:P7D}")
+    private Duration refreshTokenTtl;
+
+    public record Rotation(String username, String refreshToken) {
+    }
+
+    public String issue(String username) {
+        return create(username, UUID.randomUUID().toString());
+    }
+
+    // the revocations must survive the 401, hence noRollbackFor
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public Rotation rotate(String token) {
+        if (token == null || token.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(TokenUtility.digest(token))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+        if (stored.isRevoked() || refreshTokenRepository.revokeIfActive(stored.getId()) == 0) {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            System.out.println("Refresh token reuse detected for " + stored.getUsername() + ", session revoked");
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        if (stored.getExpiresAt().isBefore(Instant.now())) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token expired");
+        }
+        return new Rotation(stored.getUsername(), create(stored.getUsername(), stored.getFamilyId()));
+    }
+
+    // logout: ends the session the token belongs to, whether or not it is still current
+    public void revoke(String token) {
+        if (token != null && !token.isBlank()) {
+            refreshTokenRepository.findByTokenHash(TokenUtility.digest(token))
+                    .ifPresent(stored -> refreshTokenRepository.revokeFamily(stored.getFamilyId()));
+        }
+    }
+
+    public void revokeAll(String username) {
+        refreshTokenRepository.revokeByUsername(username);
+    }
+
+    public void revokeAll(Collection<String> usernames) {
+        refreshTokenRepository.revokeByUsernameIn(usernames);
+    }
+
+    public void revokeAll() {
+        refreshTokenRepository.deleteAllInBatch();
+    }
+
+    @Scheduled(fixedDelayString = "${userapp.jwt.refresh-token-purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            System.out.println("Purged " + purged + " expired refresh tokens");
+        }
+    }
+
+    private String create(String username, String familyId) {
+        String token = TokenUtility.newToken();
+        refreshTokenRepository.save(new RefreshToken(TokenUtility.digest(token), username, familyId,
+                Instant.now().plus(refreshTokenTtl)));
+        return token;
+    }
+}
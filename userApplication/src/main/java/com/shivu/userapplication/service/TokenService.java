@@ -1,8 +1,10 @@
 package com.shivu.userapplication.service;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.stream.Collectors;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
@@ -11,6 +13,10 @@ import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.stereotype.Service;
 
+import com.shivu.userapplication.config.RoleMaskAuthorizationManager;
+import com.shivu.userapplication.model.RoleBit;
+import com.shivu.userapplication.utils.JwtSigningKeys;
+
 @Service
 public class TokenService {
     
@@ -21,22 +27,32 @@ public class TokenService {
     @SuppressWarnings("unused")
     private JwtDecoder jwtDecoder;
 
+    @Autowired
+    private JwtSigningKeys keys;
+
+    // short enough that a missed revocation heals itself; clients renew via /auth/refresh
+    @Value("${userapp.jwt.access-token-ttl:PT15M}")
+    private Duration accessTokenTtl;
+
     public String generateJwt(Authentication auth){
 
         Instant now = Instant.now();
 
-        String scope = auth.getAuthorities().stream() 
+        List<String> roles = auth.getAuthorities().stream()
             .map(GrantedAuthority::getAuthority)
-            .collect(Collectors.joining(" "));
+            .toList();
+        String scope = String.join(" ", roles);
 
         JwtClaimsSet claims = JwtClaimsSet.builder()
             .issuer("self")
             .issuedAt(now)
+            .expiresAt(now.plus(accessTokenTtl))
             .subject(auth.getName())
             .claim("roles", scope)
+            .claim(RoleMaskAuthorizationManager.CLAIM, RoleBit.maskOf(roles))
             .build();
 
-        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        return jwtEncoder.encode(JwtEncoderParameters.from(keys.newHeader(), claims)).getTokenValue();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.shivu.userapplication.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/*
+ * Directory export. Rows come off a forward-only cursor as scalar tuples (no
+ * entities, so the persistence context stays empty) and are written as they
+ * arrive; memory use does not grow with the number of users. The query is
+ * ordered by user id so the one-row-per-role join can be folded back into one
+ * line per user while streaming.
+ *
+ * The columns differ from what POST /admin/import reads: an export carries
+ * status and no password, so it is a report, not an import file.
+ *
+ * MySQL only honours the fetch size with useCursorFetch=true on the URL;
+ * without it Connector/J reads the whole result into memory first.
+ */
+@Service
+public class UserExportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String CSV_HEADER = "username,email,department,status,roles";
+
+    private static final String QUERY = "SELECT u.userId, u.username, u.email, d.departmentName, u.status, r.authority "
+            + "FROM ApplicationUser u LEFT JOIN u.department d LEFT JOIN u.authorities r";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public UserExportService(PlatformTransactionManager transactionManager,
+            @Value("${userapp.export.fetch-size:1000}") int fetchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    private record ExportRow(String username, String email, String department, UserStatus status,
+            List<String> roles) {
+    }
+
+    // status null exports everyone
+    public long export(OutputStream out, Format format, UserStatus status) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long started = System.nanoTime();
+        long exported;
+        try {
+            exported = transactionTemplate.execute(tx -> {
+                try (Stream<Object[]> rows = query(status).getResultStream()) {
+                    return writeUsers(rows.iterator(), rowWriter);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+        System.out.println("Exported " + exported + " users as " + format + " in "
+                + (System.nanoTime() - started) / 1_000_000 + " ms");
+        return exported;
+    }
+
+    private TypedQuery<Object[]> query(UserStatus status) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                status == null ? QUERY + " ORDER BY u.userId" : QUERY + " WHERE u.status = :status ORDER BY u.userId",
+                Object[].class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    private long writeUsers(Iterator<Object[]> rows, RowWriter rowWriter) {
+        long exported = 0;
+        Integer currentId = null;
+        ExportRow current = null;
+        try {
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                Integer userId = (Integer) row[0];
+                if (!userId.equals(currentId)) {
+                    if (current != null) {
+                        rowWriter.write(current);
+                        exported++;
+                    }
+                    currentId = userId;
+                    current = new ExportRow((String) row[1], (String) row[2], (String) row[3], (UserStatus) row[4],
+                            new ArrayList<>(4));
+                }
+                if (row[5] != null) {
+                    current.roles().add((String) row[5]);
+                }
+            }
+            if (current != null) {
+                rowWriter.write(current);
+                exported++;
+            }
+        } catch (IOException e) {
+            // client went away; the stream is closed by the caller, ending the cursor
+            throw new UncheckedIOException(e);
+        }
+        return exported;
+    }
+
+    private interface RowWriter {
+        void write(ExportRow row) throws IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            writer.write(escape(row.username()));
+            writer.write(',');
+            writer.write(escape(row.email()));
+            writer.write(',');
+            writer.write(escape(row.department()));
+            writer.write(',');
+            writer.write(row.status() == null ? "" : row.status().name());
+            writer.write(',');
+            // ';'-separated, as POST /admin/import writes roles
+            writer.write(escape(String.join(";", row.roles())));
+            writer.write('\n');
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = jsonFactory.createGenerator(writer);
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            // the writer is flushed and closed by the servlet container
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("username", row.username());
+            generator.writeStringField("email", row.email());
+            generator.writeStringField("department", row.department());
+            generator.writeStringField("status", Objects.toString(row.status(), null));
+            generator.writeArrayFieldStart("roles");
+            for (String role : row.roles()) {
+                generator.writeString(role);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (generator.getOutputContext().getEntryCount() > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+}
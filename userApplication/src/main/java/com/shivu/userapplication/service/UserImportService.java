@@ -0,0 +1,346 @@
+package com.shivu.userapplication.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivu.userapplication.exception.UserAlreadyExistsException;
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.model.ImportReport;
+import com.shivu.userapplication.model.Role;
+import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.utils.BoundedPasswordEncoder;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Bulk onboarding. The body is read line by line and handled chunk-size rows
+ * at a time: one set-based query per chunk finds usernames and emails that are
+ * already taken, passwords are hashed in parallel on the import's own pool
+ * (logins keep their BCrypt pool to themselves), and the chunk is inserted in
+ * one transaction that Hibernate sends as JDBC batches (hibernate.jdbc.batch_size).
+ * If a chunk still fails, e.g. a concurrent registration took a name, its rows
+ * are retried one by one so the report names the offending row.
+ *
+ * Imported users are ACTIVE: the import replaces registration plus approval.
+ */
+@Service
+public class UserImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String CSV_COLUMNS = "username,password,email,department,roles";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private DirectoryStatsService directoryStatsService;
+
+    private final PasswordEncoder hasher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor hashPool;
+    private final int chunkSize;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public UserImportService(BoundedPasswordEncoder passwordEncoder, PlatformTransactionManager transactionManager,
+            @Value("${userapp.import.chunk-size:500}") int chunkSize,
+            @Value("${userapp.import.hash-threads:0}") int threads) {
+        this.hasher = passwordEncoder.getDelegate();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // a full queue makes the reading thread hash too, which also throttles reading
+        this.hashPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize), runnable -> {
+                    Thread thread = new Thread(runnable, "import-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+
+    private static class Row {
+        long line;
+        String username;
+        String password;
+        String email;
+        String department;
+        List<String> roles = List.of();
+        ApplicationUser user;
+        Future<String> hash;
+    }
+
+    public ImportReport importUsers(InputStream body, Format format) throws IOException {
+        ImportReport report = new ImportReport();
+        long started = System.nanoTime();
+        // only names are remembered across chunks, to catch duplicates within the file
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (format == Format.CSV && lineNumber == 1
+                    && line.replace(" ", "").toLowerCase(Locale.ROOT).startsWith("username,"))) {
+                continue;
+            }
+            report.rowRead();
+            Row row;
+            try {
+                row = format == Format.CSV ? parseCsv(line) : parseJson(line);
+            } catch (IllegalArgumentException | IOException e) {
+                report.fail(lineNumber, null, "Unreadable row: " + e.getMessage());
+                continue;
+            }
+            row.line = lineNumber;
+            String problem = validate(row);
+            if (problem == null && !seenUsernames.add(row.username.toLowerCase(Locale.ROOT))) {
+                problem = "Duplicate username in file";
+            }
+            if (problem == null && !seenEmails.add(row.email.toLowerCase(Locale.ROOT))) {
+                problem = "Duplicate email in file";
+            }
+            if (problem != null) {
+                report.fail(lineNumber, row.username, problem);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+        report.finish(System.nanoTime() - started);
+        System.out.println("Imported " + report.getImported() + " of " + report.getRows() + " users in "
+                + report.getElapsedMillis() + " ms (" + Math.round(report.getRowsPerSecond()) + " rows/s)");
+        return report;
+    }
+
+    private void importChunk(List<Row> chunk, ImportReport report) {
+        // the IN lookup matches case-insensitively on MySQL, so compare the way the unique keys will
+        Set<String> takenUsernames = lowerCased(userRepository.findExistingUsernames(
+                chunk.stream().map(row -> row.username).toList()));
+        Set<String> takenEmails = lowerCased(userRepository.findExistingEmails(
+                chunk.stream().map(row -> row.email).toList()));
+
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String problem = takenUsernames.contains(row.username.toLowerCase(Locale.ROOT)) ? "Username already exists"
+                    : takenEmails.contains(row.email.toLowerCase(Locale.ROOT)) ? "Email already exists" : null;
+            Set<Role> roles = new HashSet<>();
+            for (String roleName : row.roles) {
+                Role role = referenceDataService.roleFor(roleName);
+                if (role == null) {
+                    if (problem == null) {
+                        problem = "Unknown role " + roleName;
+                    }
+                    continue;
+                }
+                roles.add(role);
+            }
+            if (problem != null) {
+                report.fail(row.line, row.username, problem);
+                continue;
+            }
+            String password = row.password;
+            row.hash = hashPool.submit(() -> hasher.encode(password));
+            row.user = new ApplicationUser(row.username, null, roles,
+                    referenceDataService.departmentFor(row.department), row.email, null);
+            row.user.setStatus(UserStatus.ACTIVE);
+            row.password = null;
+            accepted.add(row);
+        }
+
+        List<Row> hashed = new ArrayList<>(accepted.size());
+        for (Row row : accepted) {
+            try {
+                row.user.setPassword(row.hash.get());
+                hashed.add(row);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing imported passwords", e);
+            } catch (ExecutionException e) {
+                report.fail(row.line, row.username, "Could not hash password");
+            }
+        }
+        if (hashed.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<ApplicationUser> users = hashed.stream().map(row -> row.user).toList();
+                userRepository.saveAll(users);
+                userRepository.flush();
+                directoryStatsService.addedAll(users);
+            });
+            report.imported(hashed.size());
+        } catch (RuntimeException chunkFailure) {
+            for (Row row : hashed) {
+                importOne(row, report);
+            }
+        }
+    }
+
+    private void importOne(Row row, ImportReport report) {
+        // the failed chunk may have assigned ids before rolling back
+        row.user.setId(null);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAndFlush(row.user);
+                directoryStatsService.added(DirectoryStatsService.Entry.of(row.user));
+            });
+            report.imported(1);
+        } catch (DataIntegrityViolationException e) {
+            UserAlreadyExistsException duplicate = UserAlreadyExistsException.fromConstraintViolation(e);
+            report.fail(row.line, row.username,
+                    duplicate != null ? duplicate.getMessage() : e.getMostSpecificCause().getMessage());
+        } catch (RuntimeException e) {
+            report.fail(row.line, row.username, e.getMessage());
+        }
+    }
+
+    private static String validate(Row row) {
+        if (row.username == null || row.username.isBlank()) {
+            return "username is required";
+        } else if (row.password == null || row.password.isEmpty()) {
+            return "password is required";
+        } else if (row.email == null || row.email.isBlank() || !row.email.contains("@")) {
+            return "a valid email is required";
+        }
+        return null;
+    }
+
+    private Row parseJson(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        Row row = new Row();
+        row.username = text(node, "username");
+        row.password = text(node, "password");
+        row.email = text(node, "email");
+        row.department = text(node, "department");
+        JsonNode roles = node.get("roles");
+        if (roles != null && roles.isArray()) {
+            List<String> names = new ArrayList<>();
+            roles.forEach(role -> names.add(role.asText().trim()));
+            row.roles = names;
+        } else if (roles != null && roles.isTextual()) {
+            row.roles = splitRoles(roles.asText());
+        }
+        return normalise(row);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    // columns as in CSV_COLUMNS; roles separated by ';'. Fields may be double-quoted.
+    private static Row parseCsv(String line) {
+        List<String> fields = new ArrayList<>(5);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        fields.add(field.toString());
+        if (fields.size() < 3 || fields.size() > 5) {
+            throw new IllegalArgumentException("expected " + CSV_COLUMNS);
+        }
+        Row row = new Row();
+        row.username = fields.get(0);
+        row.password = fields.get(1);
+        row.email = fields.get(2);
+        row.department = fields.size() > 3 ? fields.get(3) : null;
+        row.roles = fields.size() > 4 ? splitRoles(fields.get(4)) : List.of();
+        return normalise(row);
+    }
+
+    private static Set<String> lowerCased(List<String> values) {
+        Set<String> lowered = new HashSet<>();
+        for (String value : values) {
+            lowered.add(value.toLowerCase(Locale.ROOT));
+        }
+        return lowered;
+    }
+
+    private static List<String> splitRoles(String roles) {
+        List<String> names = new ArrayList<>();
+        for (String role : roles.split(";")) {
+            if (!role.isBlank()) {
+                names.add(role.trim());
+            }
+        }
+        return names;
+    }
+
+    private static Row normalise(Row row) {
+        row.username = row.username == null ? null : row.username.trim();
+        row.email = row.email == null ? null : row.email.trim();
+        row.department = row.department == null || row.department.isBlank() ? "USER" : row.department.trim();
+        return row;
+    }
+}
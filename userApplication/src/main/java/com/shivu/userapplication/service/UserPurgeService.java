@@ -0,0 +1,142 @@
+package com.shivu.userapplication.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.shivu.userapplication.model.PurgeJob;
+import com.shivu.userapplication.model.UserStatusRow;
+import com.shivu.userapplication.repository.PasswordResetTokenRepository;
+import com.shivu.userapplication.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Deletes every user in the background, chunk-size users per transaction:
+ * the chunk's ids are read in id order, then its junction rows and users go
+ * in one set-based DELETE each, so no entity is loaded and no transaction
+ * or persistence context grows with the directory. Each chunk also revokes its
+ * users' refresh tokens, reset links and principal-cache entries, so a
+ * cancelled purge leaves no deleted user logged in, and no link that could
+ * reset a later account of the same name. One purge runs at a time. The directory
+ * counters are rebuilt from SQL once it ends rather than tracked per chunk.
+ */
+@Service
+public class UserPurgeService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private DirectoryStatsService directoryStatsService;
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile PurgeJob current;
+
+    public UserPurgeService(PlatformTransactionManager transactionManager,
+            @Value("${userapp.purge.chunk-size:1000}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PurgeJob job = current;
+        if (job != null) {
+            job.requestCancel();
+        }
+        executor.shutdown();
+    }
+
+    public synchronized PurgeJob start() {
+        if (current != null && current.getState() == PurgeJob.State.RUNNING) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A purge is already running");
+        }
+        PurgeJob job = new PurgeJob(UUID.randomUUID().toString(), userRepository.count());
+        current = job;
+        executor.execute(() -> run(job));
+        return job;
+    }
+
+    public PurgeJob status() {
+        PurgeJob job = current;
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No purge has been started");
+        }
+        return job;
+    }
+
+    // takes effect between chunks; what was deleted stays deleted
+    public PurgeJob cancel() {
+        PurgeJob job = status();
+        job.requestCancel();
+        return job;
+    }
+
+    private void run(PurgeJob job) {
+        long started = System.nanoTime();
+        try {
+            int after = Integer.MIN_VALUE;
+            while (!job.isCancelRequested()) {
+                List<UserStatusRow> chunk = userRepository.findStatusRowsAfter(after, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                List<Integer> ids = chunk.stream().map(UserStatusRow::getUserId).toList();
+                List<String> usernames = chunk.stream().map(UserStatusRow::getUsername).toList();
+                Integer deleted = transactionTemplate.execute(tx -> {
+                    userRepository.deleteDepartmentLinksByUserIdIn(ids);
+                    refreshTokenService.revokeAll(usernames);
+                    passwordResetTokenRepository.deleteByUsernameIn(usernames);
+                    return userRepository.deleteByUserIdIn(ids);
+                });
+                usernames.forEach(principalCache::invalidate);
+                job.chunkDeleted(deleted);
+                after = ids.get(ids.size() - 1);
+            }
+            if (job.isCancelRequested()) {
+                job.finish(PurgeJob.State.CANCELLED, null);
+            } else {
+                refreshTokenService.revokeAll();
+                principalCache.invalidateAll();
+                job.finish(PurgeJob.State.COMPLETED, null);
+            }
+        } catch (RuntimeException e) {
+            job.finish(PurgeJob.State.FAILED, e.getMessage());
+        } finally {
+            // an Error goes on to the executor thread, but must not leave the job RUNNING and block start()
+            if (job.getState() == PurgeJob.State.RUNNING) {
+                job.finish(PurgeJob.State.FAILED, "Purge stopped unexpectedly, see the server log");
+            }
+            directoryStatsService.markStale();
+            System.out.println("User purge " + job.getState() + ": " + job.getDeleted() + " users in "
+                    + job.getChunks() + " chunks, " + (System.nanoTime() - started) / 1_000_000 + " ms");
+        }
+    }
+}
@@ -1,53 +1,61 @@
 package com.shivu.userapplication.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import com.shivu.userapplication.exception.UserNotFoundException;
 import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.UserPrincipal;
 import com.shivu.userapplication.repository.UserRepository;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
-    // @Autowired
-    // private PasswordEncoder encoder;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
 
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        return userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("user is not valid"));
+        return principalCache.get(username, () -> userRepository.findPrincipalByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("user is not valid")));
     }
     
-    public void updateResetPasswordToken(String token, String email) throws UserNotFoundException {
-        ApplicationUser user = userRepository.findByEmail(email);
-        if (user!= null) 
-        {
-            user.setResetPasswordToken(token);
-            userRepository.save(user);
-        }
-        else {
-            throw new UserNotFoundException("Could not find any customer with the email " + email);
-        }
-    }
-     
-    public ApplicationUser getByResetPasswordToken(String token) throws Exception{
-        return userRepository.findByResetPasswordToken(token).orElseThrow(()->new Exception("invalid token"));
-    }
-     
     public void updatePassword(ApplicationUser user, String newPassword) {
-        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
         String encodedPassword = passwordEncoder.encode(newPassword);
         user.setPassword(encodedPassword);
          
         user.setResetPasswordToken(null);
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
+        // a password reset ends every session of the account
+        refreshTokenService.revokeAll(user.getUsername());
+    }
+
+    // Called by Spring Security with an already encoded password when a stored hash needs a cost upgrade
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newEncodedPassword) {
+        if (userRepository.updatePasswordByUsername(user.getUsername(), newEncodedPassword) == 0) {
+            throw new UsernameNotFoundException("user is not valid");
+        }
+        principalCache.invalidate(user.getUsername());
+        if (user instanceof UserPrincipal principal) {
+            return principal.withPassword(newEncodedPassword);
+        }
+        return User.withUserDetails(user).password(newEncodedPassword).build();
     }
 
     
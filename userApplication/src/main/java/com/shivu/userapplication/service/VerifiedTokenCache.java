@@ -0,0 +1,148 @@
+package com.shivu.userapplication.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.stereotype.Component;
+
+import com.shivu.userapplication.utils.BoundedCache;
+
+/*
+ * Tokens whose signature has already been verified, keyed by a SHA-256 digest
+ * of the compact token, together with the authorities built from them. decode()
+ * hands out the cached token itself, so the authorities converter finds them
+ * on it without a second lookup. An entry never outlives the token's exp claim.
+ *
+ * Revocation: whenever PrincipalCache is invalidated for a user (reject,
+ * delete, role update, rename, password change) the current second is recorded
+ * for that user, and every decode(), cached or not, rejects that user's tokens
+ * issued before it. That is one map lookup per request and one put per change.
+ * iat has second precision, so a token issued earlier in the same second as
+ * the change still passes; one issued right after the change (the login that
+ * re-hashed a password) is not caught by it. A record is dropped once every
+ * token it could apply to has expired (access-token-ttl).
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final BoundedCache<String, CachedJwt> cache;
+    private final long ttlMillis;
+    private final Duration accessTokenTtl;
+
+    // username -> tokens issued before this instant are rejected
+    private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+    // the same for every user, after an invalidateAll()
+    private volatile Instant allRevokedBefore = Instant.EPOCH;
+
+    public VerifiedTokenCache(@Value("${userapp.token-cache.max-size:10000}") int maxSize,
+            @Value("${userapp.token-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${userapp.jwt.access-token-ttl:PT15M}") Duration accessTokenTtl, PrincipalCache principalCache) {
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.accessTokenTtl = accessTokenTtl;
+        this.cache = new BoundedCache<>(maxSize, ttlMillis);
+        principalCache.addInvalidationListener(this::revokeSubject);
+    }
+
+    public Jwt decode(String token, JwtDecoder delegate) {
+        String key = digest(token);
+        CachedJwt cached = cache.get(key);
+        if (cached != null) {
+            return checkRevoked(cached);
+        }
+        long generation = cache.generation();
+        CachedJwt jwt = checkRevoked(new CachedJwt(delegate.decode(token)));
+        long remainingMillis = ttlMillis;
+        if (jwt.getExpiresAt() != null) {
+            remainingMillis = Math.min(remainingMillis, Duration.between(Instant.now(), jwt.getExpiresAt()).toMillis());
+        }
+        cache.putUntil(key, jwt, System.nanoTime() + remainingMillis * 1_000_000L, generation);
+        return jwt;
+    }
+
+    // authorities are cached per token; the Authentication itself is rebuilt per request
+    // because Spring Security sets request-specific details on it
+    public Collection<GrantedAuthority> authorities(Jwt jwt, Converter<Jwt, Collection<GrantedAuthority>> builder) {
+        if (!(jwt instanceof CachedJwt cached)) {
+            return builder.convert(jwt);
+        }
+        Collection<GrantedAuthority> authorities = cached.authorities;
+        if (authorities == null) {
+            authorities = List.copyOf(builder.convert(jwt));
+            cached.authorities = authorities;
+        }
+        return authorities;
+    }
+
+    private CachedJwt checkRevoked(CachedJwt jwt) {
+        Instant cutoff = allRevokedBefore;
+        Instant subjectCutoff = jwt.getSubject() == null ? null : revokedBefore.get(jwt.getSubject());
+        if (subjectCutoff != null && subjectCutoff.isAfter(cutoff)) {
+            cutoff = subjectCutoff;
+        }
+        if (cutoff != Instant.EPOCH && (jwt.getIssuedAt() == null || jwt.getIssuedAt().isBefore(cutoff))) {
+            throw new BadJwtException("Token has been revoked");
+        }
+        return jwt;
+    }
+
+    // null for everyone
+    public void revokeSubject(String username) {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        if (username == null) {
+            allRevokedBefore = cutoff;
+            revokedBefore.clear();
+            cache.invalidateAll();
+        } else {
+            revokedBefore.merge(username, cutoff, (a, b) -> a.isAfter(b) ? a : b);
+        }
+    }
+
+    // a record older than the longest token lifetime can no longer reject anything
+    @Scheduled(fixedDelayString = "${userapp.jwt.access-token-ttl:PT15M}")
+    public void expireRevocations() {
+        Instant horizon = Instant.now().minus(accessTokenTtl);
+        revokedBefore.values().removeIf(cutoff -> cutoff.isBefore(horizon));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(cache.stats());
+        stats.put("revokedSubjects", revokedBefore.size());
+        return stats;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CachedJwt extends Jwt {
+        private static final long serialVersionUID = 1L;
+
+        transient volatile Collection<GrantedAuthority> authorities;
+
+        CachedJwt(Jwt jwt) {
+            super(jwt.getTokenValue(), jwt.getIssuedAt(), jwt.getExpiresAt(), jwt.getHeaders(), jwt.getClaims());
+        }
+    }
+}
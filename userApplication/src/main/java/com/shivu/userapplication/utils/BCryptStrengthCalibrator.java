@@ -0,0 +1,54 @@
+package com.shivu.userapplication.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the highest BCrypt cost whose hash time on this machine stays within a
+ * latency budget. Each cost step doubles the work, so one measurement at the
+ * minimum cost is enough to extrapolate the rest. The outcome is reported with
+ * the hashing stats rather than logged.
+ */
+public class BCryptStrengthCalibrator {
+
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+
+    public record Calibration(int strength, long estimatedMillis, long targetMillis, double measuredMillis) {
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("strength", strength);
+            map.put("calibrated", true);
+            map.put("targetMillis", targetMillis);
+            map.put("estimatedMillis", estimatedMillis);
+            map.put("measuredMillisAtMinStrength", measuredMillis);
+            return map;
+        }
+    }
+
+    public static Calibration calibrate(long targetMillis) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        encoder.encode("warm-up");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return extrapolate(best / 1_000_000.0, targetMillis);
+    }
+
+    // the cost to use given one hash at MIN_STRENGTH took millisAtMin
+    public static Calibration extrapolate(double millisAtMin, long targetMillis) {
+        double millis = millisAtMin;
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+        return new Calibration(strength, Math.round(millis), targetMillis, millisAtMin);
+    }
+}
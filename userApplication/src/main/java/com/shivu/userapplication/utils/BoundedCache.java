@@ -0,0 +1,150 @@
+package com.shivu.userapplication.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Small size-bounded LRU cache with a per-entry expiry time and hit/miss
+ * counters. All access goes through one monitor; the critical sections are a
+ * hash lookup and a relink, so contention stays negligible next to the work the
+ * cached values save.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // bumped on every invalidation so a load that raced with a write is not cached
+    private long generation;
+
+    public BoundedCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public void put(K key, V value) {
+        putUntil(key, value, System.nanoTime() + ttlNanos, -1);
+    }
+
+    /**
+     * Stores the value only if nothing was invalidated since {@code generation}
+     * was read, i.e. the value cannot be older than the last write.
+     */
+    public void putIfCurrent(K key, V value, long generation) {
+        putUntil(key, value, System.nanoTime() + ttlNanos, generation);
+    }
+
+    /**
+     * Stores the value until {@code expiresAtNanos} (a {@link System#nanoTime()}
+     * instant), capped by the configured TTL.
+     */
+    public void putUntil(K key, V value, long expiresAtNanos, long generation) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long expiresAt = Math.min(expiresAtNanos - now, ttlNanos) + now;
+        if (expiresAt - now <= 0) {
+            return;
+        }
+        synchronized (this) {
+            if (generation >= 0 && generation != this.generation) {
+                return;
+            }
+            entries.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        if (entries.remove(key) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public synchronized void invalidateIf(Predicate<V> predicate) {
+        generation++;
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (predicate.test(it.next().value)) {
+                it.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Map<String, Object> stats() {
+        long h = hits.get();
+        long m = misses.get();
+        return Map.of(
+                "size", size(),
+                "maxSize", maxSize,
+                "ttlMillis", ttlNanos / 1_000_000L,
+                "hits", h,
+                "misses", m,
+                "hitRatio", h + m == 0 ? 0.0 : (double) h / (h + m),
+                "evictions", evictions.get(),
+                "invalidations", invalidations.get());
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
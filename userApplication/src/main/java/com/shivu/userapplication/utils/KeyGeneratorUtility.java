@@ -1,6 +1,7 @@
 package com.shivu.userapplication.utils;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
 
 public class KeyGeneratorUtility {
 
@@ -17,5 +18,20 @@ public class KeyGeneratorUtility {
         }
         return keyPair;
     }
+
+    // curveName is the JCA name, e.g. secp256r1 for P-256
+    public static KeyPair generateEcKey(String curveName){
+
+        KeyPair keyPair;
+
+        try{
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+            keyPairGenerator.initialize(new ECGenParameterSpec(curveName));
+            keyPair = keyPairGenerator.generateKeyPair();
+        } catch(Exception e){
+            throw new IllegalStateException(e);
+        }
+        return keyPair;
+    }
     
 }
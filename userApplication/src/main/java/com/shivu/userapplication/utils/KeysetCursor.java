@@ -0,0 +1,116 @@
+package com.shivu.userapplication.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/*
+ * Position in a user listing: the sort key, its direction and the key of the
+ * last row already returned. Pages continue with "key > last" (or "<") instead
+ * of an offset, so the database seeks straight to the page through the index
+ * and deep pages cost the same as the first one.
+ *
+ * The token handed to clients is opaque (base64url of "key:direction:value")
+ * and carries the sort, so following pages only need the cursor.
+ */
+public final class KeysetCursor {
+
+    public enum SortKey {
+        // both are unique, so a single column is a stable keyset
+        USER_ID("userId"), USERNAME("username");
+
+        private final String property;
+
+        SortKey(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+
+    private final SortKey key;
+    private final boolean descending;
+    private final String after;
+
+    private KeysetCursor(SortKey key, boolean descending, String after) {
+        this.key = key;
+        this.descending = descending;
+        this.after = after;
+    }
+
+    // first page for the requested sort, or the page after an earlier cursor (which wins over sort/direction)
+    public static KeysetCursor of(String sort, String direction, String cursor) {
+        if (cursor != null && !cursor.isBlank()) {
+            return decode(cursor);
+        }
+        SortKey key;
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("userId")) {
+            key = SortKey.USER_ID;
+        } else if (sort.equalsIgnoreCase("username")) {
+            key = SortKey.USERNAME;
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sort must be userId or username");
+        }
+        boolean descending;
+        if (direction == null || direction.isBlank() || direction.equalsIgnoreCase("asc")) {
+            descending = false;
+        } else if (direction.equalsIgnoreCase("desc")) {
+            descending = true;
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "direction must be asc or desc");
+        }
+        return new KeysetCursor(key, descending, null);
+    }
+
+    private static KeysetCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 3);
+            SortKey key = SortKey.valueOf(parts[0]);
+            boolean descending = parts[1].equals("d");
+            if (key == SortKey.USER_ID) {
+                Integer.parseInt(parts[2]);
+            }
+            return new KeysetCursor(key, descending, parts[2]);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public KeysetCursor next(Object lastKey) {
+        return new KeysetCursor(key, descending, String.valueOf(lastKey));
+    }
+
+    public String encode() {
+        String raw = key.name() + ":" + (descending ? "d" : "a") + ":" + after;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public SortKey getKey() {
+        return key;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public boolean isFirstPage() {
+        return after == null;
+    }
+
+    // the last key as the type of the sort column
+    public Object getAfter() {
+        return key == SortKey.USER_ID && after != null ? Integer.valueOf(after) : after;
+    }
+
+    @Override
+    public String toString() {
+        return key.name().toLowerCase(Locale.ROOT) + (descending ? " desc" : " asc")
+                + (after == null ? "" : " after " + after);
+    }
+}
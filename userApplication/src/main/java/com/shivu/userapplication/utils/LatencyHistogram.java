@@ -0,0 +1,48 @@
+package com.shivu.userapplication.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free fixed-bucket latency histogram. Bucket bounds are inclusive upper
+ * limits in milliseconds; the last bucket catches everything slower.
+ */
+public class LatencyHistogram {
+
+    private static final long[] BOUNDS_MILLIS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000 };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MILLIS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long millis = nanos / 1_000_000L;
+        int i = 0;
+        while (i < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[i]) {
+            i++;
+        }
+        buckets.incrementAndGet(i);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long n = count.sum();
+        result.put("count", n);
+        result.put("meanMillis", n == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / n);
+        result.put("maxMillis", maxNanos.get() / 1_000_000.0);
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            histogram.put("le_" + BOUNDS_MILLIS[i] + "ms", buckets.get(i));
+        }
+        histogram.put("gt_" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] + "ms", buckets.get(BOUNDS_MILLIS.length));
+        result.put("buckets", histogram);
+        return result;
+    }
+}
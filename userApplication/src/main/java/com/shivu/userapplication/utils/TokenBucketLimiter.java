@@ -0,0 +1,105 @@
+package com.shivu.userapplication.utils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket per key, implemented as GCRA: a bucket is a single
+ * AtomicLong holding the time at which it will be full again, and taking a
+ * token is one compare-and-set. The ConcurrentHashMap's per-bin locking only
+ * comes into play when a key is first seen.
+ *
+ * A bucket that has refilled completely carries no state, so sweep() drops
+ * those; the map only ever holds keys active within the last refill period.
+ */
+public class TokenBucketLimiter {
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public TokenBucketLimiter(int capacity, Duration refillPeriod) {
+        this(capacity, refillPeriod, System::nanoTime);
+    }
+
+    // capacity tokens, refilled evenly over refillPeriod
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, LongSupplier clock) {
+        if (capacity < 1 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Invalid rate limit " + capacity + "/" + refillPeriod);
+        }
+        this.capacity = capacity;
+        this.intervalNanos = refillPeriod.toNanos() / capacity;
+        this.burstNanos = intervalNanos * capacity;
+        this.clock = clock;
+    }
+
+    /** Takes a token for key; returns 0 on success, otherwise the nanoseconds until one is available. */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.getAsLong();
+            long fullAt = bucket.get();
+            long start = fullAt == Long.MIN_VALUE || fullAt - now < 0 ? now : fullAt;
+            long next = start + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                rejected.incrementAndGet();
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                allowed.incrementAndGet();
+                return 0;
+            }
+        }
+    }
+
+    /** Like tryAcquire but takes nothing: 0 if key has a token left, otherwise the nanoseconds until it will. */
+    public long peek(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        long fullAt = bucket.get();
+        long start = fullAt == Long.MIN_VALUE || fullAt - now < 0 ? now : fullAt;
+        return Math.max(0, start + intervalNanos - now - burstNanos);
+    }
+
+    /*
+     * Removes buckets that are full again. A thread racing with the removal
+     * spends its token on the dropped bucket, which costs at most one extra
+     * request, never a rejected one.
+     */
+    public int sweep() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            if (entry.getValue().get() - now <= 0 && buckets.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        evicted.addAndGet(removed);
+        return removed;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", capacity);
+        stats.put("refillPeriodMillis", burstNanos / 1_000_000L);
+        stats.put("keys", buckets.size());
+        stats.put("allowed", allowed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("evicted", evicted.get());
+        return stats;
+    }
+}
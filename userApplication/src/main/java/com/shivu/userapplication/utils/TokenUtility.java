@@ -0,0 +1,34 @@
+package com.shivu.userapplication.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/*
+ * Opaque bearer tokens handed to clients (refresh tokens, reset links). Only
+ * the SHA-256 digest is stored, so a leaked table cannot be replayed, and the
+ * digest is what the unique index looks up.
+ */
+public class TokenUtility {
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	// 256 random bits, base64url without padding
+	public static String newToken() {
+		byte[] bytes = new byte[32];
+		RANDOM.nextBytes(bytes);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+	public static String digest(String token) {
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
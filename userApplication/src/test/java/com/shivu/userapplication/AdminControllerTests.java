@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -25,10 +27,17 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
 import com.shivu.userapplication.controller.AdminController;
 import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
 import com.shivu.userapplication.model.Department;
+import com.shivu.userapplication.model.KeysetPage;
 import com.shivu.userapplication.model.Role;
+import com.shivu.userapplication.repository.PasswordResetTokenRepository;
 import com.shivu.userapplication.repository.RoleRepository;
 import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.service.DirectoryStatsService;
+import com.shivu.userapplication.service.PrincipalCache;
+import com.shivu.userapplication.service.RefreshTokenService;
+import com.shivu.userapplication.utils.KeysetCursor;
 import com.shivu.userapplication.exception.ResourceNotFoundException;
 import com.shivu.userapplication.exception.UserNotFoundException;
 
@@ -43,6 +52,18 @@ public class AdminControllerTests {
     @Mock
     RoleRepository roleRepository;
 
+    @Mock
+    PrincipalCache principalCache;
+
+    @Mock
+    RefreshTokenService refreshTokenService;
+
+    @Mock
+    DirectoryStatsService directoryStatsService;
+
+    @Mock
+    PasswordResetTokenRepository passwordResetTokenRepository;
+
     @SuppressWarnings("deprecation")
     @BeforeEach
     public void setUp() {
@@ -88,9 +109,9 @@ public class AdminControllerTests {
                 dept, "mockemail@gmail.com", null);
         ApplicationUser user3 = new ApplicationUser("mockname3", "mockpass", roles,
                 dept, "mockemail@gmail.com", null);
-        ArrayList<ApplicationUser> users = new ArrayList<>(List.of(user1, user2, user3));
-        when(userRepository.findAllByDepartmentName(anyString())).thenReturn(users);
-        assertEquals(users, adminController.getUsersByDepartment("department"));
+        KeysetPage<ApplicationUser> users = new KeysetPage<>(List.of(user1, user2, user3), null);
+        when(userRepository.findPageWithAuthorities(isNull(), eq("department"), any(KeysetCursor.class), isNull())).thenReturn(users);
+        assertEquals(users, adminController.getUsersByDepartment("department", null, null, null, null));
     }
 
     @Test
@@ -102,7 +123,7 @@ public class AdminControllerTests {
         ApplicationUser mockUser = mock(ApplicationUser.class);
         ApplicationUser user = new ApplicationUser("mockname", "mockpass",
                 mockRole, dept, "mockemail@gmail.com", null);
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.findWithAuthoritiesByUsername(anyString())).thenReturn(Optional.of(user));
         ApplicationUser actual = adminController.getuserById("mockname");
         assertEquals(user, actual);
         assertNotEquals(user, mockUser);
@@ -110,22 +131,25 @@ public class AdminControllerTests {
 
     @Test
     public void testDeleteUserById_UserNotFound() {
-        when(userRepository.findByUsername("nonexistentusername")).thenReturn(Optional.empty());
+        when(userRepository.deleteByUsername("nonexistentusername")).thenReturn(0);
 
         assertThrows(UserNotFoundException.class, () -> adminController.deleteUserById("nonexistentusername"));
     }
 
     @Test
     public void testDeleteUserById() throws Exception {
-        when(userRepository.findByUsername(anyString()))
-                .thenReturn(Optional.of(new ApplicationUser()));
+        DirectoryStatsService.Entry entry = new DirectoryStatsService.Entry(UserStatus.ACTIVE, "HR", Set.of("HR"));
+        when(directoryStatsService.find("username")).thenReturn(Optional.of(entry));
+        when(userRepository.deleteByUsername("username")).thenReturn(1);
         Boolean actual = adminController.deleteUserById("username");
         assertTrue(actual);
+        verify(principalCache).invalidate("username");
+        verify(directoryStatsService).removed(entry);
     }
 
     @Test
     public void testDeleteUsers() {
-        when(userRepository.findAll()).thenReturn(new ArrayList<>());
+        when(userRepository.count()).thenReturn(0L);
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
             adminController.deleteUsers();
         });
@@ -135,7 +159,7 @@ public class AdminControllerTests {
     @Test
     public void testUpdate() throws Exception {
         ApplicationUser user = mock(ApplicationUser.class);
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.findWithAuthoritiesByUsername(anyString())).thenReturn(Optional.of(user));
         when(userRepository.save(any())).thenReturn(user);
         ApplicationUser actual = adminController.update("username", user);
         assertEquals(user, actual);
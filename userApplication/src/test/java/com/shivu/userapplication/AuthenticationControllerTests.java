@@ -10,16 +10,21 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import com.shivu.userapplication.service.AuthenticationService;
 import com.shivu.userapplication.repository.UserRepository;
 import com.shivu.userapplication.repository.RoleRepository;
 import com.shivu.userapplication.repository.DepartmentRepository;
 import com.shivu.userapplication.model.LoginResponseDTO;
+import com.shivu.userapplication.exception.UserAlreadyExistsException;
 import com.shivu.userapplication.model.ApplicationUser;
 import com.shivu.userapplication.model.RegistrationDTO;
 import com.shivu.userapplication.model.Department;
 import com.shivu.userapplication.model.Role;
+import com.shivu.userapplication.model.UserPrincipal;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import java.util.List;
 import java.util.Set;
 
 @SpringBootTest
@@ -44,11 +49,7 @@ class AuthenticationControllerTests {
 	@Test
 	public void testLogin_Success() throws Exception {
 		LoginResponseDTO loginResponseDTO = new LoginResponseDTO();
-		ApplicationUser user = new ApplicationUser();
-		user.setUsername("admin");
-		user.setPassword("password");
-		user.setDepartment(new Department("IT"));
-		user.setAuthorities(Set.of(new Role(1, "ADMIN")));
+		UserPrincipal user = new UserPrincipal(1, "admin", "password", UserStatus.ACTIVE, "IT", List.of("ADMIN"));
 		loginResponseDTO.setUser(user);
 		loginResponseDTO.setJwt("mock-jwt-token");
 
@@ -61,6 +62,8 @@ class AuthenticationControllerTests {
 				.content(requestBody))
 				.andExpect(MockMvcResultMatchers.status().isOk())
 				.andExpect(MockMvcResultMatchers.jsonPath("$.username").value("admin"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.departmentName").value("IT"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.roles[0].authority").value("ADMIN"))
 				.andExpect(MockMvcResultMatchers.jsonPath("$.jwt").value("mock-jwt-token"));
 	}
 
@@ -88,7 +91,8 @@ class AuthenticationControllerTests {
 
 	@Test
 	public void testRegister_UserAlreadyExists() throws Exception {
-		when(userRepository.findByUsername("existinguser")).thenReturn(java.util.Optional.of(new ApplicationUser()));
+		when(authenticationService.registerUser(anyString(), anyString(), anyString(), any()))
+				.thenThrow(new UserAlreadyExistsException("UserName Already Taken,"));
 
 		String requestBody = "{\"username\": \"existinguser\", \"password\": \"password\",\"email\":\"test@email.com\"}";
 
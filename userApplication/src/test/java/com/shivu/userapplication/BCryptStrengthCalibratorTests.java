@@ -0,0 +1,45 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.shivu.userapplication.utils.BCryptStrengthCalibrator;
+import com.shivu.userapplication.utils.BCryptStrengthCalibrator.Calibration;
+import com.shivu.userapplication.utils.BoundedPasswordEncoder;
+
+public class BCryptStrengthCalibratorTests {
+
+    @Test
+    public void testPicksHighestCostWithinBudget() {
+        // 20 ms at cost 10: 40 at 11, 80 at 12, 160 at 13; 320 would exceed 250
+        Calibration calibration = BCryptStrengthCalibrator.extrapolate(20, 250);
+        assertEquals(13, calibration.strength());
+        assertEquals(160, calibration.estimatedMillis());
+    }
+
+    @Test
+    public void testStaysWithinBounds() {
+        assertEquals(BCryptStrengthCalibrator.MIN_STRENGTH, BCryptStrengthCalibrator.extrapolate(500, 250).strength());
+        assertEquals(BCryptStrengthCalibrator.MAX_STRENGTH, BCryptStrengthCalibrator.extrapolate(0.01, 250).strength());
+    }
+
+    @Test
+    public void testCalibrationIsReportedWithHashingStats() {
+        Calibration calibration = BCryptStrengthCalibrator.calibrate(1);
+        assertEquals(BCryptStrengthCalibrator.MIN_STRENGTH, calibration.strength());
+        assertTrue(calibration.measuredMillis() > 0);
+
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(calibration.strength()), 1, 1, calibration.toMap());
+        Map<String, Object> stats = encoder.stats();
+        assertEquals(calibration.strength(), stats.get("strength"));
+        assertEquals(true, stats.get("calibrated"));
+        assertEquals(1L, stats.get("targetMillis"));
+        encoder.shutdown();
+    }
+}
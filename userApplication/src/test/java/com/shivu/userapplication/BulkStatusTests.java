@@ -0,0 +1,141 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.ReferenceDataService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class BulkStatusTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode post(String path, String body) throws Exception {
+        String response = mockMvc.perform(MockMvcRequestBuilders.post(path).contentType(MediaType.APPLICATION_JSON)
+                .content(body)).andExpect(MockMvcResultMatchers.status().isOk()).andReturn().getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static Map<String, String> outcomes(JsonNode report) {
+        Map<String, String> outcomes = new HashMap<>();
+        report.get("outcomes").forEach(o -> outcomes.put(o.get("username").asText(), o.get("outcome").asText()));
+        return outcomes;
+    }
+
+    @Test
+    public void testApproveByUsernameIsSetBased() throws Exception {
+        for (int i = 1; i <= 6; i++) {
+            authenticationService.registerUser("bulka" + i, "secret", "bulka" + i + "@example.com", "HR");
+        }
+        referenceDataService.roleNames();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        JsonNode report = post("/admin/approve", "{\"usernames\":[\"bulka1\",\"bulka2\",\"bulka3\",\"bulka4\","
+                + "\"bulka5\",\"bulka6\",\"hr1\",\"nosuchuser\"],\"roles\":[\"FINANCE\",\"GENERAL\"],"
+                + "\"department\":\"FINANCE\"}");
+
+        // lock, role count + delete + insert, department count + update, status, one batched outbox
+        // insert: the same for 6 users or 1,000
+        assertEquals(8, statistics.getPrepareStatementCount());
+        assertEquals(6, report.get("updated").asInt());
+        assertEquals(2, report.get("skipped").asInt());
+        Map<String, String> outcomes = outcomes(report);
+        assertEquals("APPROVED", outcomes.get("bulka6"));
+        assertEquals("NOT_PENDING", outcomes.get("hr1"));
+        assertEquals("NOT_FOUND", outcomes.get("nosuchuser"));
+
+        ApplicationUser user = userRepository.findWithAuthoritiesByUsername("bulka3").orElseThrow();
+        assertEquals(UserStatus.ACTIVE, user.getStatus());
+        assertEquals("FINANCE", user.getDepartment().getDepartmentName());
+        assertEquals(Set.of("FINANCE", "GENERAL"),
+                user.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+        assertEquals(Set.of("HR", "GENERAL"), userRepository.findWithAuthoritiesByUsername("hr1").orElseThrow()
+                .getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testRejectByFilter() throws Exception {
+        authenticationService.registerUser("bulkr1", "secret", "bulkr1@spam.example", "SALES");
+        authenticationService.registerUser("bulkr2", "secret", "bulkr2@spam.example", "SALES");
+        authenticationService.registerUser("bulkr3", "secret", "bulkr3@example.com", "SALES");
+
+        JsonNode report = post("/admin/reject",
+                "{\"filter\":{\"department\":\"SALES\",\"emailDomain\":\"spam.example\"}}");
+
+        assertEquals(Map.of("bulkr1", "REJECTED", "bulkr2", "REJECTED"), outcomes(report));
+        assertTrue(!report.get("more").asBoolean());
+        assertEquals(UserStatus.REJECTED, userRepository.findByUsername("bulkr1").orElseThrow().getStatus());
+        assertEquals(UserStatus.PENDING, userRepository.findByUsername("bulkr3").orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testLongNameListIsChunked() throws Exception {
+        authenticationService.registerUser("bulkc1", "secret", "bulkc1@example.com", "IT");
+        authenticationService.registerUser("bulkc2", "secret", "bulkc2@example.com", "IT");
+        StringBuilder usernames = new StringBuilder("[");
+        for (int i = 1; i <= 1500; i++) {
+            usernames.append("\"bulkcmissing").append(i).append("\",");
+        }
+        usernames.append("\"bulkc1\",\"bulkc2\"]");
+
+        JsonNode report = post("/admin/reject", "{\"usernames\":" + usernames + "}");
+
+        assertEquals(2, report.get("updated").asInt());
+        assertEquals(1500, report.get("skipped").asInt());
+        assertEquals("REJECTED", outcomes(report).get("bulkc2"));
+        assertEquals(UserStatus.REJECTED, userRepository.findByUsername("bulkc1").orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testRequestMustNameUsersOrFilter() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/admin/approve").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"roles\":[\"HR\"]}")).andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.post("/admin/reject").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\":{}}")).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
@@ -0,0 +1,102 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.service.AuthenticationService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// string comparisons ignore case here, as with MySQL's default collation
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:userapp-ci-${random.uuid};MODE=MySQL;"
+        + "DB_CLOSE_DELAY=-1;IGNORECASE=TRUE")
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class CaseInsensitiveCollationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode post(String path, String body) throws Exception {
+        String response = mockMvc.perform(MockMvcRequestBuilders.post(path).contentType(MediaType.APPLICATION_JSON)
+                .content(body)).andExpect(MockMvcResultMatchers.status().isOk()).andReturn().getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static Map<String, String> outcomes(JsonNode report) {
+        Map<String, String> outcomes = new HashMap<>();
+        report.get("outcomes").forEach(o -> outcomes.put(o.get("username").asText(), o.get("outcome").asText()));
+        return outcomes;
+    }
+
+    @Test
+    public void testBulkApproveMatchesNamesInAnyCase() throws Exception {
+        authenticationService.registerUser("CiPending", "secret", "cipending@example.com", "HR");
+
+        JsonNode report = post("/admin/approve", "{\"usernames\":[\"cipending\",\"HR1\",\"CIPENDING\"],"
+                + "\"roles\":[\"FINANCE\"],\"department\":\"FINANCE\"}");
+
+        assertEquals(Map.of("CiPending", "APPROVED", "HR1", "NOT_PENDING"), outcomes(report));
+        assertEquals(UserStatus.ACTIVE, userRepository.findByUsername("CiPending").orElseThrow().getStatus());
+        // the active user matched by a differently spelled name keeps its roles and department
+        ApplicationUser hr1 = userRepository.findWithAuthoritiesByUsername("hr1").orElseThrow();
+        assertEquals("HR", hr1.getDepartment().getDepartmentName());
+        assertEquals(Set.of("HR", "GENERAL"),
+                hr1.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void testImportRejectsTakenNamesInAnyCase() throws Exception {
+        String csv = """
+                username,password,email,department,roles
+                ciimp1,secret,ciimp1@example.com,SALES,SALES
+                HR1,secret,ciimp2@example.com,HR,HR
+                ciimp3,secret,HR2@EMAIL.COM,HR,HR
+                """;
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/admin/import").contentType("text/csv").content(csv))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].error").value("Username already exists"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].error").value("Email already exists"));
+
+        // caught before the insert, so the chunk is not retried row by row
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+}
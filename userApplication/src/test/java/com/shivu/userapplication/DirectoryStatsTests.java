@@ -0,0 +1,132 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.DirectoryStatsService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class DirectoryStatsTests {
+
+    @Autowired
+    private DirectoryStatsService directoryStatsService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SuppressWarnings("unchecked")
+    private static long count(Map<String, Object> counts, String dimension, String name) {
+        return ((Map<Object, Long>) counts.get(dimension)).entrySet().stream()
+                .filter(entry -> entry.getKey().toString().equals(name)).mapToLong(Map.Entry::getValue).sum();
+    }
+
+    private void post(String path, String body) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void testCountersFollowWritesWithoutQueries() throws Exception {
+        Map<String, Object> before = directoryStatsService.counts();
+        for (int i = 1; i <= 5; i++) {
+            authenticationService.registerUser("dirstats" + i, "secret", "dirstats" + i + "@example.com", "SALES");
+        }
+        post("/admin/approve/dirstats1", "{\"roles\":[\"FINANCE\",\"GENERAL\"],\"department\":[\"FINANCE\"]}");
+        post("/admin/reject/dirstats2", "");
+        post("/admin/approve", "{\"usernames\":[\"dirstats3\",\"dirstats4\"],\"roles\":[\"IT\"],\"department\":\"IT\"}");
+        mockMvc.perform(MockMvcRequestBuilders.delete("/admin/delete/dirstats5"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Map<String, Object> after = directoryStatsService.counts();
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        assertEquals(4, (long) after.get("total") - (long) before.get("total"));
+        assertEquals(3, count(after, "byStatus", "ACTIVE") - count(before, "byStatus", "ACTIVE"));
+        assertEquals(1, count(after, "byStatus", "REJECTED") - count(before, "byStatus", "REJECTED"));
+        assertEquals(count(before, "byStatus", "PENDING"), count(after, "byStatus", "PENDING"));
+        assertEquals(1, count(after, "byDepartment", "SALES") - count(before, "byDepartment", "SALES"));
+        assertEquals(2, count(after, "byDepartment", "IT") - count(before, "byDepartment", "IT"));
+        assertEquals(2, count(after, "byRole", "IT") - count(before, "byRole", "IT"));
+        assertEquals(1, count(after, "byRole", "GENERAL") - count(before, "byRole", "GENERAL"));
+
+        // the incremental counters agree with the SQL aggregates
+        assertEquals(0, directoryStatsService.reconcile());
+        assertEquals(after.get("byRole"), directoryStatsService.counts().get("byRole"));
+    }
+
+    @Test
+    public void testRolledBackWriteIsNotCounted() {
+        long total = (long) directoryStatsService.counts().get("total");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            authenticationService.registerUser("dirstatsrollback", "secret", "dirstatsrollback@example.com", "HR");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(total, directoryStatsService.counts().get("total"));
+        assertEquals(0, directoryStatsService.reconcile());
+    }
+
+    @Test
+    public void testReconcileCorrectsOutsideWrites() {
+        authenticationService.registerUser("dirstatsoutside", "secret", "dirstatsoutside@example.com", "HR");
+        long pending = count(directoryStatsService.counts(), "byStatus", "PENDING");
+
+        jdbcTemplate.update("UPDATE users SET status = 'ACTIVE' WHERE username = 'dirstatsoutside'");
+
+        // one off PENDING, one missing from ACTIVE
+        assertEquals(2, directoryStatsService.reconcile());
+        assertEquals(pending - 1, count(directoryStatsService.counts(), "byStatus", "PENDING"));
+        assertEquals(2L, directoryStatsService.stats().get("lastDrift"));
+    }
+
+    @Test
+    @WithMockUser(username = "hr1", roles = "HR")
+    public void testEndpointForHr() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/directorystats"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.byDepartment.HR").isNumber());
+    }
+
+    @Test
+    @WithMockUser(username = "payroll1", roles = "PAYROLL")
+    public void testEndpointForPayroll() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/directorystats"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.byStatus.ACTIVE").isNumber());
+    }
+}
@@ -0,0 +1,122 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.shivu.userapplication.model.DisplayEmployees;
+import com.shivu.userapplication.model.KeysetPage;
+import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.utils.KeysetCursor;
+
+/*
+ * Walks every page of the active-user listing two ways: entities mapped to
+ * DisplayEmployees (the old getusers path) and the listagg projection. Reports
+ * time and bytes allocated per row at 10k and 100k users. No status filter:
+ * H2 does not read (status, user_id) in index order, so a filtered walk would
+ * mostly measure H2 re-sorting the remaining rows for every page.
+ * Run with: mvn test -Dtest=DisplayProjectionBenchmarkTests -Dbenchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DisplayProjectionBenchmarkTests {
+
+    // clear of the ids Hibernate hands out to the seeded users
+    private static final int FIRST_ID = 10_000_000;
+    private static final int PAGE_SIZE = 500;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private void insertUsers(int count) {
+        Integer departmentId = jdbcTemplate.queryForObject(
+                "SELECT department_id FROM department WHERE department_name = 'HR'", Integer.class);
+        Integer hrRole = jdbcTemplate.queryForObject("SELECT role_id FROM roles WHERE authority = 'HR'",
+                Integer.class);
+        Integer generalRole = jdbcTemplate.queryForObject("SELECT role_id FROM roles WHERE authority = 'GENERAL'",
+                Integer.class);
+        List<Object[]> users = new ArrayList<>(count);
+        List<Object[]> links = new ArrayList<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int id = FIRST_ID + i;
+            // a bcrypt-length hash, as hydration would carry in production
+            users.add(new Object[] { id, "bench" + id, "$2a$10$" + "x".repeat(53), "bench" + id + "@example.com",
+                    "ACTIVE", departmentId });
+            links.add(new Object[] { id, hrRole });
+            links.add(new Object[] { id, generalRole });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_id, username, password, email, status, department_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO user_role_junction (user_id, role_id) VALUES (?, ?)", links);
+    }
+
+    private void deleteUsers() {
+        jdbcTemplate.update("DELETE FROM user_role_junction WHERE user_id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM users WHERE user_id >= ?", FIRST_ID);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private <T> long walk(Function<KeysetCursor, KeysetPage<T>> pageOf) {
+        long rows = 0;
+        KeysetCursor cursor = KeysetCursor.of("userId", "asc", null);
+        while (true) {
+            KeysetPage<T> page = pageOf.apply(cursor);
+            rows += page.getItems().size();
+            if (page.getNextCursor() == null) {
+                return rows;
+            }
+            cursor = KeysetCursor.of(null, null, page.getNextCursor());
+        }
+    }
+
+    private <T> void measure(String label, int users, Function<KeysetCursor, KeysetPage<T>> pageOf) {
+        walk(pageOf);
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        long rows = walk(pageOf);
+        long nanos = System.nanoTime() - start;
+        bytes = allocatedBytes() - bytes;
+        assertTrue(rows >= users);
+        System.out.printf("%-10s %7d rows: %6d ms, %5d bytes allocated/row%n", label, rows, nanos / 1_000_000,
+                bytes / rows);
+    }
+
+    private void compare(int users) {
+        insertUsers(users);
+        try {
+            measure("entities", users, cursor -> userRepository
+                    .findPageWithAuthorities(null, null, cursor, PAGE_SIZE)
+                    .map(user -> new DisplayEmployees(user.getUsername(), user.getDepartment().getDepartmentName(),
+                            user.getAuthorities())));
+            measure("projection", users,
+                    cursor -> userRepository.findDisplayPage(null, null, cursor, PAGE_SIZE));
+        } finally {
+            deleteUsers();
+        }
+    }
+
+    @Test
+    public void compareAt10k() {
+        compare(10_000);
+    }
+
+    @Test
+    public void compareAt100k() {
+        compare(100_000);
+    }
+}
@@ -0,0 +1,125 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.ReferenceDataService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * SQL statements per request for the endpoints that return users. Each list is
+ * a fixed number of statements however many rows it returns; a count that
+ * grows with the data (an N+1 from a lazy association touched per row) fails
+ * here first.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class EndpointQueryCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        // a pending user with a department, so the pending list has a row to render
+        if (userRepository.findByUsername("qcpending").isEmpty()) {
+            authenticationService.registerUser("qcpending", "secret", "qcpending@example.com", "HR");
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private ResultActions assertStatements(long expected, MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions result = mockMvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk());
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements");
+        return result;
+    }
+
+    @Test
+    public void testActiveUsers() throws Exception {
+        // page, then the page's role names
+        assertStatements(2, MockMvcRequestBuilders.get("/admin/getusers").param("limit", "500"));
+    }
+
+    @Test
+    public void testPendingUsers() throws Exception {
+        // department fetched with the page
+        assertStatements(1, MockMvcRequestBuilders.get("/admin/getpendingusers"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[?(@.username == 'qcpending')].department")
+                        .value("HR"));
+    }
+
+    @Test
+    public void testUsersByDepartment() throws Exception {
+        // page with departments, then its authorities
+        assertStatements(2, MockMvcRequestBuilders.get("/admin/getusers/HR"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].authorities").isNotEmpty());
+    }
+
+    @Test
+    public void testSingleUser() throws Exception {
+        assertStatements(1, MockMvcRequestBuilders.get("/admin/getuser/hr1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.department.departmentName").value("HR"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.authorities.length()").value(2));
+    }
+
+    @Test
+    @WithMockUser(username = "hr1", roles = "HR")
+    public void testEmployeeRecords() throws Exception {
+        assertStatements(2, MockMvcRequestBuilders.get("/getemployeerecords").param("limit", "500"));
+    }
+
+    @Test
+    public void testDeleteUser() throws Exception {
+        authenticationService.registerUser("qcdelete", "secret", "qcdelete@example.com", "HR");
+        statistics.clear();
+        // the directory-stats row, then both junction tables, reset links, the user and its refresh
+        // tokens, by username; no entity loaded
+        assertStatements(6, MockMvcRequestBuilders.delete("/admin/delete/qcdelete"));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(true, userRepository.findByUsername("qcdelete").isEmpty());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/admin/delete/qcdelete"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testReferenceLists() throws Exception {
+        // one load of both tables, then served from memory
+        referenceDataService.invalidate();
+        assertStatements(2, MockMvcRequestBuilders.get("/admin/getroles"));
+        statistics.clear();
+        assertStatements(0, MockMvcRequestBuilders.get("/admin/getdepartments"));
+        assertStatements(0, MockMvcRequestBuilders.get("/admin/getroles"));
+    }
+}
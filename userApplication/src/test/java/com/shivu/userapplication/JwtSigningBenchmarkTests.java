@@ -0,0 +1,65 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import com.shivu.userapplication.config.SecurityConfiguration;
+import com.shivu.userapplication.utils.JwtSigningKeys;
+
+/*
+ * Sign/verify cost per algorithm through the same encoder and decoder wiring
+ * the application uses. Run with: mvn test -Dtest=JwtSigningBenchmarkTests -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JwtSigningBenchmarkTests {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    @Test
+    public void benchmarkSigningAlgorithms() {
+        for (String algorithm : new String[] { "RS256", "PS256", "ES256", "ES384" }) {
+            JwtSigningKeys keys = new JwtSigningKeys(algorithm);
+            SecurityConfiguration configuration = new SecurityConfiguration(keys);
+            JwtEncoder encoder = configuration.jwtEncoder();
+            JwtDecoder decoder = configuration.signatureVerifyingJwtDecoder();
+            JwsHeader header = keys.newHeader();
+            JwtClaimsSet claims = JwtClaimsSet.builder()
+                    .issuer("self")
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plusSeconds(300))
+                    .subject("hr1")
+                    .claim("roles", "HR GENERAL")
+                    .build();
+            JwtEncoderParameters parameters = JwtEncoderParameters.from(header, claims);
+
+            String token = null;
+            for (int i = 0; i < WARMUP; i++) {
+                token = encoder.encode(parameters).getTokenValue();
+                decoder.decode(token);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                token = encoder.encode(parameters).getTokenValue();
+            }
+            double signMicros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                decoder.decode(token);
+            }
+            double verifyMicros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+            System.out.printf("%-6s sign %8.1f us   verify %8.1f us   token %d bytes%n", algorithm, signMicros,
+                    verifyMicros, token.length());
+            assertEquals("hr1", decoder.decode(token).getSubject());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import com.shivu.userapplication.config.SecurityConfiguration;
+import com.shivu.userapplication.utils.JwtSigningKeys;
+
+public class JwtSigningKeysTests {
+
+    @TempDir
+    Path keyDir;
+
+    @TempDir
+    Path otherNodeDir;
+
+    private JwtSigningKeys keys() {
+        return keys(keyDir);
+    }
+
+    private JwtSigningKeys keys(Path dir) {
+        return new JwtSigningKeys("RS256", dir.toString(), "", "", "PKCS12",
+                Duration.ofDays(30), Duration.ofDays(1), Duration.ZERO);
+    }
+
+    private String sign(JwtSigningKeys keys) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .subject("hr1")
+                .claim("roles", "HR")
+                .build();
+        return new SecurityConfiguration(keys).jwtEncoder()
+                .encode(JwtEncoderParameters.from(keys.newHeader(), claims)).getTokenValue();
+    }
+
+    @Test
+    public void testTokensSurviveRestart() {
+        JwtSigningKeys first = keys();
+        String token = sign(first);
+
+        JwtSigningKeys restarted = keys();
+        assertEquals(first.getKeyId(), restarted.getKeyId());
+        assertEquals("hr1", new SecurityConfiguration(restarted).signatureVerifyingJwtDecoder()
+                .decode(token).getSubject());
+    }
+
+    @Test
+    public void testRotatedKeyStillVerifiesDuringOverlap() throws Exception {
+        JwtSigningKeys original = keys();
+        String token = sign(original);
+        // age the only key past the rotation period
+        try (var files = Files.list(keyDir)) {
+            Path file = files.findFirst().orElseThrow();
+            long aged = Instant.now().minus(Duration.ofDays(31)).getEpochSecond();
+            Files.move(file, keyDir.resolve("jwt-" + aged + ".pem"));
+        }
+
+        JwtSigningKeys rotated = keys();
+        assertNotEquals(original.getKeyId(), rotated.getKeyId());
+        assertEquals("hr1", new SecurityConfiguration(rotated).signatureVerifyingJwtDecoder()
+                .decode(token).getSubject());
+        assertEquals("hr1", new SecurityConfiguration(rotated).signatureVerifyingJwtDecoder()
+                .decode(sign(rotated)).getSubject());
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> published = (List<Map<String, Object>>) rotated.getPublicJwkSet().get("keys");
+        assertEquals(2, published.size());
+        assertTrue(published.stream().noneMatch(jwk -> jwk.containsKey("d")));
+    }
+
+    @Test
+    public void testKeysCreatedInTheSameSecondAreBothKept() throws Exception {
+        JwtSigningKeys first = keys();
+        JwtSigningKeys second = keys(otherNodeDir);
+        Path firstFile;
+        try (var files = Files.list(keyDir)) {
+            firstFile = files.findFirst().orElseThrow();
+        }
+        assertTrue(firstFile.getFileName().toString().endsWith("-" + first.getKeyId() + ".pem"));
+        // as if the other node had written into the shared directory in the same second
+        String created = firstFile.getFileName().toString().split("-")[1];
+        try (var files = Files.list(otherNodeDir)) {
+            Files.move(files.findFirst().orElseThrow(),
+                    keyDir.resolve("jwt-" + created + "-" + second.getKeyId() + ".pem"));
+        }
+
+        JwtSigningKeys a = keys();
+        JwtSigningKeys b = keys();
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> published = (List<Map<String, Object>>) a.getPublicJwkSet().get("keys");
+        assertEquals(2, published.size());
+        assertEquals(a.getKeyId(), b.getKeyId());
+    }
+}
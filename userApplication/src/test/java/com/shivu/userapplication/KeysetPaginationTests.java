@@ -0,0 +1,155 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class KeysetPaginationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode get(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()).andReturn()
+                .getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    // follows nextCursor to the end and returns the usernames in the order received
+    private List<String> walk(String sort, String direction) throws Exception {
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/admin/getusers");
+            if (cursor == null) {
+                request.param("limit", "2").param("sort", sort).param("direction", direction);
+            } else {
+                request.param("limit", "2").param("cursor", cursor);
+            }
+            JsonNode page = get(request);
+            assertTrue(page.get("items").size() <= 2);
+            page.get("items").forEach(user -> usernames.add(user.get("username").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null && pages < 100);
+        return usernames;
+    }
+
+    @Test
+    public void testPagesCoverEveryActiveUserOnce() throws Exception {
+        List<String> expected = userRepository.findByStatus(UserStatus.ACTIVE).stream()
+                .map(ApplicationUser::getUsername).sorted().toList();
+        assertTrue(expected.size() > 2);
+
+        List<String> byUsername = walk("username", "asc");
+        assertEquals(expected, byUsername);
+
+        List<String> byUsernameDesc = walk("username", "desc");
+        assertEquals(expected.stream().sorted(Comparator.reverseOrder()).toList(), byUsernameDesc);
+
+        List<String> byId = walk("userId", "asc");
+        assertEquals(expected.size(), byId.size());
+        assertEquals(new HashSet<>(expected), Set.copyOf(byId));
+    }
+
+    @Test
+    public void testUserListingLoadsNoEntities() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        JsonNode page = get(MockMvcRequestBuilders.get("/admin/getusers").param("limit", "500"));
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        JsonNode hr1 = null;
+        for (JsonNode user : page.get("items")) {
+            if (user.get("username").asText().equals("hr1")) {
+                hr1 = user;
+            }
+        }
+        assertEquals("HR", hr1.get("departmentName").asText());
+        Set<String> roles = new HashSet<>();
+        hr1.get("roles").forEach(role -> roles.add(role.get("authority").asText()));
+        assertEquals(Set.of("HR", "GENERAL"), roles);
+    }
+
+    @Test
+    public void testInvalidParametersAreRejected() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/admin/getusers").param("cursor", "not-a-cursor"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/admin/getusers").param("sort", "password"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testEmployeeRecordsAreFilteredInTheQuery() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/admin/import").contentType("text/csv")
+                .content("pgonlygeneral,secret,pgonlygeneral@example.com,HR,GENERAL\n"
+                        + "pgonlyuser,secret,pgonlyuser@example.com,HR,USER;GENERAL\n"
+                        + "pgpayroll,secret,pgpayroll@example.com,PAYROLL,PAYROLL;GENERAL\n"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(3));
+
+        List<String> employees = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/getemployeerecords")
+                    .param("limit", "2").with(user("hr1").roles("HR"));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = get(request);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            // filtered before the limit, so only the last page can be short
+            assertTrue(cursor == null || page.get("items").size() == 2);
+            for (JsonNode employee : page.get("items")) {
+                employees.add(employee.get("username").asText());
+                Set<String> roles = new HashSet<>();
+                employee.get("roles").forEach(role -> roles.add(role.get("authority").asText()));
+                roles.removeAll(Set.of("USER", "GENERAL"));
+                assertTrue(!roles.isEmpty(), employee.toString());
+            }
+        } while (cursor != null);
+
+        assertTrue(employees.containsAll(List.of("hr1", "payroll1", "pgpayroll")));
+        assertTrue(!employees.contains("pgonlygeneral") && !employees.contains("pgonlyuser"));
+    }
+}
@@ -9,15 +9,21 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.ui.Model;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.shivu.userapplication.controller.LoginController;
-import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.exception.TooManyRequestsException;
 import com.shivu.userapplication.model.LoginDTO;
 import com.shivu.userapplication.model.LoginResponseDTO;
+import com.shivu.userapplication.model.UserPrincipal;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
 import com.shivu.userapplication.repository.UserRepository;
 import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.RateLimiter;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 @SpringBootTest
@@ -26,7 +32,11 @@ public class LoginControllerTests {
     @Mock
     private AuthenticationService authenticationService;
     @Mock
+    private HttpServletRequest request;
+    @Mock
     private HttpServletResponse response;
+    @Mock
+    private RateLimiter rateLimiter;
 
     @InjectMocks
     LoginController loginController;
@@ -52,32 +62,49 @@ public class LoginControllerTests {
     public void testLoginUser() throws Exception {
         Model model = mock(Model.class);
         LoginDTO user = new LoginDTO("username", "password");
-        ApplicationUser mockUser = mock(ApplicationUser.class);
+        UserPrincipal mockUser = new UserPrincipal(1, "username", "hash", UserStatus.ACTIVE, "IT", java.util.List.of());
         LoginResponseDTO loginResponseDTO = new LoginResponseDTO(mockUser, "jwt_token");
-        when(authenticationService.loginUser("username", "password")).thenReturn(loginResponseDTO);
+        when(authenticationService.loginUser("username", "password", false)).thenReturn(loginResponseDTO);
 
-        String result = loginController.LoginUser(user, model, response);
+        String result = loginController.LoginUser(user, model, request, response);
 
         assertEquals("welcome", result);
-        verify(response).addHeader("token", "jwt_token");
         verify(model).addAttribute("UserName", "username");
-        verify(model).addAttribute("token", "jwt_token");
+        // a successful login spends nothing from the username's bucket
+        verify(rateLimiter).checkFailures(RateLimiter.LOGIN, request, "username");
+        verify(rateLimiter, never()).recordFailure(anyString(), anyString());
+    }
+
+    @Test
+    public void testOnlyBadCredentialsAreCharged() {
+        Model model = mock(Model.class);
+        LoginDTO user = new LoginDTO("username", "password");
+        when(authenticationService.loginUser("username", "password", false))
+                .thenThrow(new TooManyRequestsException("Server is busy, please retry shortly", 1))
+                .thenThrow(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials!"));
+
+        // the hashing pool being full says nothing about the password
+        assertThrows(TooManyRequestsException.class, () -> loginController.LoginUser(user, model, request, response));
+        verify(rateLimiter, never()).recordFailure(anyString(), anyString());
+
+        assertThrows(ResponseStatusException.class, () -> loginController.LoginUser(user, model, request, response));
+        verify(rateLimiter).recordFailure(RateLimiter.LOGIN, "username");
     }
 
     @Test
     public void testLoginUser_Failure() throws Exception {
         Model model = mock(Model.class);
         LoginDTO user = new LoginDTO("username", "password");
-        ApplicationUser mockUser = new ApplicationUser();
+        UserPrincipal mockUser = new UserPrincipal(1, "username", "hash", UserStatus.ACTIVE, "IT", java.util.List.of());
 
         LoginResponseDTO loginResponseDTO = mock(LoginResponseDTO.class);
 
-        when(authenticationService.loginUser("usrname", "pasword")).thenReturn(loginResponseDTO);
+        when(authenticationService.loginUser("usrname", "pasword", false)).thenReturn(loginResponseDTO);
         when(loginResponseDTO.getJwt()).thenReturn("notAToken");
         when(loginResponseDTO.getUser()).thenReturn(mockUser);
         assertThrows(Exception.class,
          () -> {
-            loginController.LoginUser(user, model, response);
+            loginController.LoginUser(user, model, request, response);
                 });
     }
 }
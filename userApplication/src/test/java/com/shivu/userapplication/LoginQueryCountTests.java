@@ -0,0 +1,62 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.shivu.userapplication.model.LoginResponseDTO;
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.PrincipalCache;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+public class LoginQueryCountTests {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        principalCache.invalidateAll();
+        statistics.clear();
+    }
+
+    // one principal lookup, plus the insert of the refresh token
+    @Test
+    public void testLoginIssuesOneLookupAndOneInsert() {
+        LoginResponseDTO response = authenticationService.loginUser("hr1", "password");
+
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals("HR", response.getUser().getDepartmentName());
+        assertEquals(2, response.getUser().getAuthorities().size());
+        assertNotNull(response.getJwt());
+    }
+
+    @Test
+    public void testRepeatLoginIsServedFromPrincipalCache() {
+        authenticationService.loginUser("hr1", "password");
+        statistics.clear();
+
+        authenticationService.loginUser("hr1", "password");
+
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
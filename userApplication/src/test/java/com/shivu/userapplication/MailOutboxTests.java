@@ -0,0 +1,188 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.shivu.userapplication.model.OutboxMail.Status;
+import com.shivu.userapplication.repository.OutboxMailRepository;
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.MailDispatcher;
+import com.shivu.userapplication.service.MailOutboxService;
+
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+
+// dispatch() is driven by the tests; the scheduled run is pushed out of the way
+@SpringBootTest(properties = { "spring.mail.host=localhost", "spring.mail.port=3025",
+        "userapp.mail.dispatch-interval=PT1H", "userapp.mail.batch-size=3" })
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class MailOutboxTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String status(String recipient) {
+        return jdbcTemplate.queryForObject("SELECT status FROM mail_outbox WHERE recipient = ?", String.class,
+                recipient);
+    }
+
+    private static List<String> recipients(MimeMessage[] messages) {
+        return Arrays.stream(messages).map(message -> {
+            try {
+                return message.getRecipients(Message.RecipientType.TO)[0].toString();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+    }
+
+    @Test
+    public void testDispatchSendsEveryDueMailInBatches() {
+        for (int i = 1; i <= 7; i++) {
+            mailOutboxService.enqueue("batch" + i + "@example.com", "Hello " + i, "<p>Mail " + i + "</p>");
+        }
+
+        // three batches of at most three
+        assertEquals(7, mailDispatcher.dispatch());
+        List<String> received = recipients(greenMail.getReceivedMessages());
+        for (int i = 1; i <= 7; i++) {
+            assertTrue(received.contains("batch" + i + "@example.com"));
+            assertEquals("SENT", status("batch" + i + "@example.com"));
+        }
+        assertEquals(0, mailDispatcher.dispatch());
+    }
+
+    @Test
+    public void testApproveAndRejectQueueNotices() throws Exception {
+        authenticationService.registerUser("mailapprove", "secret", "mailapprove@example.com", "HR");
+        authenticationService.registerUser("mailreject", "secret", "mailreject@example.com", "HR");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/admin/approve/mailapprove")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"roles\":[\"HR\"]}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.post("/admin/reject/mailreject"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        // queued with the change, not sent inside the request
+        assertEquals("PENDING", status("mailapprove@example.com"));
+        assertEquals(0, greenMail.getReceivedMessages().length);
+
+        mailDispatcher.dispatch();
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        assertEquals(2, messages.length);
+        for (MimeMessage message : messages) {
+            String to = message.getRecipients(Message.RecipientType.TO)[0].toString();
+            assertEquals(to.equals("mailapprove@example.com") ? "Your account has been approved"
+                    : "Your registration was not approved", message.getSubject());
+        }
+        assertEquals("SENT", status("mailreject@example.com"));
+    }
+
+    @Test
+    public void testLapsedClaimDoesNotOverwriteNewOwner() {
+        mailOutboxService.enqueue("lapsed@example.com", "Hello", "<p>Lapsed</p>");
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM mail_outbox WHERE recipient = ?", Long.class,
+                "lapsed@example.com");
+        Instant now = Instant.now();
+        // the first run's lease ends at once, so a second run a moment later takes the row over
+        // (later, not at the same instant: the database may round the stored lease up)
+        Instant later = now.plusSeconds(1);
+        assertEquals(1, outboxMailRepository.claim(List.of(id), Status.PENDING, "slow", now, now));
+        assertEquals(1, outboxMailRepository.claim(List.of(id), Status.PENDING, "fast", later, later.plusSeconds(300)));
+
+        assertEquals(0, outboxMailRepository.markSent(List.of(id), "slow", Status.SENT, now));
+        assertEquals(0, outboxMailRepository.markAttemptFailed(id, "slow", Status.FAILED, now, "timeout"));
+        assertEquals("PENDING", status("lapsed@example.com"));
+        assertEquals("fast", jdbcTemplate.queryForObject("SELECT claim FROM mail_outbox WHERE id = ?",
+                String.class, id));
+        assertEquals(1, outboxMailRepository.markSent(List.of(id), "fast", Status.SENT, now));
+    }
+
+    private String body(String recipient) {
+        return jdbcTemplate.queryForObject("SELECT body FROM mail_outbox WHERE recipient = ?", String.class,
+                recipient);
+    }
+
+    @Test
+    public void testFinishedMailsLoseTheirBodyAndArePurged() {
+        mailOutboxService.enqueuePasswordReset("finished-failed@example.com", "http://localhost/reset?token=secret");
+        jdbcTemplate.update("UPDATE mail_outbox SET attempts = 4 WHERE recipient = 'finished-failed@example.com'");
+        greenMail.stop();
+        mailDispatcher.dispatch();
+        greenMail.start();
+        assertEquals("FAILED", status("finished-failed@example.com"));
+        mailOutboxService.enqueuePasswordReset("finished-sent@example.com", "http://localhost/reset?token=secret");
+        mailDispatcher.dispatch();
+        assertEquals("SENT", status("finished-sent@example.com"));
+        mailOutboxService.enqueue("finished-pending@example.com", "Hello", "<p>Pending</p>");
+
+        // no reset link is left behind once a mail is done with
+        assertEquals("", body("finished-failed@example.com"));
+        assertEquals("", body("finished-sent@example.com"));
+
+        jdbcTemplate.update("UPDATE mail_outbox SET created_at = ? WHERE recipient LIKE 'finished-%'",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(8))));
+        assertTrue(mailDispatcher.purgeFinished() >= 2);
+        assertEquals(List.of("finished-pending@example.com"), jdbcTemplate.queryForList(
+                "SELECT recipient FROM mail_outbox WHERE recipient LIKE 'finished-%'", String.class));
+        // not due to anyone else's dispatch()
+        jdbcTemplate.update("DELETE FROM mail_outbox WHERE recipient = 'finished-pending@example.com'");
+    }
+
+    @Test
+    public void testFailedDeliveryIsRetriedLater() {
+        greenMail.stop();
+        mailOutboxService.enqueue("retry@example.com", "Hello", "<p>Retry</p>");
+
+        assertEquals(0, mailDispatcher.dispatch());
+        assertEquals("PENDING", status("retry@example.com"));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT attempts FROM mail_outbox WHERE recipient = ?",
+                Integer.class, "retry@example.com"));
+        Timestamp next = jdbcTemplate.queryForObject(
+                "SELECT next_attempt_at FROM mail_outbox WHERE recipient = ?", Timestamp.class, "retry@example.com");
+        assertTrue(next.toInstant().isAfter(Instant.now()));
+
+        // backing off: not due again yet
+        greenMail.start();
+        assertEquals(0, mailDispatcher.dispatch());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+}
@@ -0,0 +1,53 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.PrincipalCache;
+
+@SpringBootTest
+public class PasswordRehashTests {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String passwordHash(String username) {
+        return jdbcTemplate.queryForObject("SELECT password FROM users WHERE username = ?", String.class, username);
+    }
+
+    @Test
+    public void testLowerCostHashIsUpgradedOnSuccessfulLoginOnly() {
+        authenticationService.registerUser("rehash", "secret", "rehash@example.com", "HR");
+        // as stored before the cost was raised
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+        jdbcTemplate.update("UPDATE users SET password = ?, status = 'ACTIVE' WHERE username = 'rehash'", weak);
+        principalCache.invalidate("rehash");
+
+        assertThrows(ResponseStatusException.class, () -> authenticationService.loginUser("rehash", "wrong"));
+        assertEquals(weak, passwordHash("rehash"));
+
+        authenticationService.loginUser("rehash", "secret");
+        String upgraded = passwordHash("rehash");
+        assertTrue(upgraded.startsWith("$2a$10$"), upgraded);
+        assertTrue(new BCryptPasswordEncoder().matches("secret", upgraded));
+
+        // the new hash is used from then on
+        authenticationService.loginUser("rehash", "secret");
+        assertEquals(upgraded, passwordHash("rehash"));
+    }
+}
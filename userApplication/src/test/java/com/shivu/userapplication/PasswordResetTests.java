@@ -0,0 +1,120 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.PasswordResetService;
+import com.shivu.userapplication.utils.TokenUtility;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PasswordResetTests {
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String storedHash(String token) {
+        return jdbcTemplate.queryForObject("SELECT token_hash FROM password_reset_tokens WHERE token_hash = ?",
+                String.class, TokenUtility.digest(token));
+    }
+
+    @Test
+    public void testTokenResetsPasswordOnce() {
+        authenticationService.registerUser("reset1", "before", "reset1@example.com", "HR");
+        String token = passwordResetService.issue("reset1@example.com");
+
+        assertNotEquals(token, storedHash(token));
+        assertEquals("reset1", passwordResetService.findUser(token).orElseThrow().getUsername());
+        assertTrue(passwordResetService.resetPassword(token, "after"));
+        String hash = jdbcTemplate.queryForObject("SELECT password FROM users WHERE username = 'reset1'",
+                String.class);
+        assertTrue(passwordEncoder.matches("after", hash));
+
+        assertFalse(passwordResetService.resetPassword(token, "again"));
+        assertTrue(passwordResetService.findUser(token).isEmpty());
+    }
+
+    @Test
+    public void testNewTokenReplacesOldAndExpiredTokensArePurged() {
+        authenticationService.registerUser("reset2", "before", "reset2@example.com", "HR");
+        String first = passwordResetService.issue("reset2@example.com");
+        String second = passwordResetService.issue("reset2@example.com");
+        assertTrue(passwordResetService.findUser(first).isEmpty());
+        assertTrue(passwordResetService.findUser(second).isPresent());
+
+        jdbcTemplate.update("UPDATE password_reset_tokens SET expires_at = ? WHERE username = 'reset2'",
+                Timestamp.from(Instant.now().minusSeconds(60)));
+        assertTrue(passwordResetService.findUser(second).isEmpty());
+        assertFalse(passwordResetService.resetPassword(second, "after"));
+
+        assertTrue(passwordResetService.purgeExpired() >= 1);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM password_reset_tokens WHERE username = 'reset2'", Integer.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testDeletedUsersLinkDoesNotResetNextAccountOfThatName() throws Exception {
+        authenticationService.registerUser("reset3", "before", "reset3@example.com", "HR");
+        String token = passwordResetService.issue("reset3@example.com");
+        mockMvc.perform(MockMvcRequestBuilders.delete("/admin/delete/reset3"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        authenticationService.registerUser("reset3", "newowner", "reset3-new@example.com", "HR");
+
+        assertTrue(passwordResetService.findUser(token).isEmpty());
+        assertFalse(passwordResetService.resetPassword(token, "hijacked"));
+        String hash = jdbcTemplate.queryForObject("SELECT password FROM users WHERE username = 'reset3'",
+                String.class);
+        assertTrue(passwordEncoder.matches("newowner", hash));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testRenameDropsOldNamesLinks() throws Exception {
+        authenticationService.registerUser("reset4", "before", "reset4@example.com", "HR");
+        String token = passwordResetService.issue("reset4@example.com");
+        mockMvc.perform(MockMvcRequestBuilders.put("/admin/update/reset4").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"reset4renamed\"}")).andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertTrue(passwordResetService.findUser(token).isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM password_reset_tokens WHERE username = 'reset4'", Integer.class));
+    }
+
+    @Test
+    public void testInvalidLinkShowsError() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/resetpassword").param("token", "not-a-token"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("error", "Invalid or expired reset link"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.model.UserPrincipal;
+import com.shivu.userapplication.service.PrincipalCache;
+
+public class PrincipalCacheTests {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private UserPrincipal load(String username) {
+        loads.incrementAndGet();
+        return new UserPrincipal(1, username, "hash", UserStatus.ACTIVE, "IT", List.of("IT"));
+    }
+
+    @Test
+    public void testSecondLookupIsServedFromCache() {
+        PrincipalCache cache = new PrincipalCache(10, 60);
+        UserPrincipal first = cache.get("it1", () -> load("it1"));
+        UserPrincipal second = cache.get("it1", () -> load("it1"));
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+    }
+
+    @Test
+    public void testInvalidateForcesReload() {
+        PrincipalCache cache = new PrincipalCache(10, 60);
+        cache.get("it1", () -> load("it1"));
+        cache.invalidate("it1");
+        cache.get("it1", () -> load("it1"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testLoadRacingWithInvalidateIsNotCached() {
+        PrincipalCache cache = new PrincipalCache(10, 60);
+        cache.get("it1", () -> {
+            cache.invalidate("it1");
+            return load("it1");
+        });
+        cache.get("it1", () -> load("it1"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        PrincipalCache cache = new PrincipalCache(2, 60);
+        cache.get("a", () -> load("a"));
+        cache.get("b", () -> load("b"));
+        cache.get("c", () -> load("c"));
+        assertEquals(2, cache.stats().get("size"));
+        assertEquals(1L, cache.stats().get("evictions"));
+    }
+}
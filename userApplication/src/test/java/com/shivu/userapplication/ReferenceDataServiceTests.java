@@ -0,0 +1,99 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.ReferenceDataService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class ReferenceDataServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testWarmLookupsIssueNoQueries() {
+        referenceDataService.roleNames();
+        statistics.clear();
+
+        assertEquals("HR", referenceDataService.roleFor("HR").getAuthority());
+        assertNull(referenceDataService.roleFor("NO_SUCH_ROLE"));
+        assertEquals("IT", referenceDataService.departmentFor("IT").getDepartmentName());
+        assertTrue(referenceDataService.departmentNames().contains("PAYROLL"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testNewDepartmentIsCreatedOnceAndListed() throws Exception {
+        authenticationService.registerUser("refdata1", "secret", "refdata1@example.com", "LEGAL");
+        authenticationService.registerUser("refdata2", "secret", "refdata2@example.com", "LEGAL");
+        assertEquals(userRepository.findByUsername("refdata1").orElseThrow().getDepartment().getDepartmentId(),
+                userRepository.findByUsername("refdata2").orElseThrow().getDepartment().getDepartmentId());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/admin/getdepartments"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@ == 'LEGAL')]").exists());
+    }
+
+    @Test
+    public void testApproveAssignsCachedRolesAndDepartment() throws Exception {
+        authenticationService.registerUser("refdata3", "secret", "refdata3@example.com", "HR");
+        long hits = (Long) referenceDataService.stats().get("hits");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/admin/approve/refdata3").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"roles\":[\"FINANCE\",\"GENERAL\",\"NO_SUCH_ROLE\"],\"department\":[\"FINANCE\"]}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertTrue((Long) referenceDataService.stats().get("hits") >= hits + 4);
+        ApplicationUser user = userRepository.findWithAuthoritiesByUsername("refdata3").orElseThrow();
+        assertEquals(UserStatus.ACTIVE, user.getStatus());
+        assertEquals("FINANCE", user.getDepartment().getDepartmentName());
+        assertEquals(Set.of("FINANCE", "GENERAL"),
+                user.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+    }
+}
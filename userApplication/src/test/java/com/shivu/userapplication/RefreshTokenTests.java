@@ -0,0 +1,119 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivu.userapplication.model.LoginResponseDTO;
+import com.shivu.userapplication.model.RefreshTokenDTO;
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.utils.BoundedPasswordEncoder;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RefreshTokenTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenDTO(refreshToken))));
+    }
+
+    private Map<?, ?> body(ResultActions result) throws Exception {
+        return objectMapper.readValue(result.andReturn().getResponse().getContentAsString(), Map.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private long hashes() {
+        Map<String, Object> stats = ((BoundedPasswordEncoder) passwordEncoder).stats();
+        return (Long) ((Map<String, Object>) stats.get("matches")).get("count")
+                + (Long) ((Map<String, Object>) stats.get("encode")).get("count");
+    }
+
+    @Test
+    public void testAccessTokenExpires() {
+        LoginResponseDTO login = authenticationService.loginUser("hr1", "password");
+        assertNotNull(jwtDecoder.decode(login.getJwt()).getExpiresAt());
+        assertNotNull(login.getRefreshToken());
+    }
+
+    @Test
+    public void testRefreshRotatesWithoutHashing() throws Exception {
+        LoginResponseDTO login = authenticationService.loginUser("hr1", "password");
+        long before = hashes();
+
+        Map<?, ?> refreshed = body(refresh(login.getRefreshToken()).andExpect(MockMvcResultMatchers.status().isOk()));
+
+        assertEquals(before, hashes());
+        assertNotEquals(login.getRefreshToken(), refreshed.get("refreshToken"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/hr").header("Authorization", "Bearer " + refreshed.get("jwt")))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void testReusedRefreshTokenRevokesSession() throws Exception {
+        String first = authenticationService.loginUser("hr2", "password").getRefreshToken();
+        String second = (String) body(refresh(first).andExpect(MockMvcResultMatchers.status().isOk()))
+                .get("refreshToken");
+
+        refresh(first).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        // the legitimate successor dies with the replayed token
+        refresh(second).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void testLogoutRevokesRefreshToken() throws Exception {
+        String token = authenticationService.loginUser("hr2", "password").getRefreshToken();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenDTO(token))))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        refresh(token).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    public void testFormLoginIssuesNoRefreshToken() throws Exception {
+        String count = "SELECT COUNT(*) FROM refresh_tokens WHERE username = 'finance2'";
+        long before = jdbcTemplate.queryForObject(count, Long.class);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/login").param("username", "finance2")
+                .param("password", "password")).andExpect(MockMvcResultMatchers.view().name("welcome"));
+
+        assertEquals(before, jdbcTemplate.queryForObject(count, Long.class));
+    }
+}
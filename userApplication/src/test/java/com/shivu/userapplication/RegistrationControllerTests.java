@@ -2,10 +2,8 @@ package com.shivu.userapplication;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -18,10 +16,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.ui.Model;
 
 import com.shivu.userapplication.controller.RegistrationController;
-import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.exception.UserAlreadyExistsException;
 import com.shivu.userapplication.model.RegistrationDTO;
 import com.shivu.userapplication.repository.UserRepository;
 import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.RateLimiter;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @SpringBootTest
 public class RegistrationControllerTests {
@@ -34,6 +35,12 @@ public class RegistrationControllerTests {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private HttpServletRequest request;
+
     @SuppressWarnings("deprecation")
     @BeforeEach
     public void setUp() {
@@ -55,9 +62,7 @@ public class RegistrationControllerTests {
         Model model = mock(Model.class);
         RegistrationDTO user = new RegistrationDTO("username", "password", "email");
 
-        when(userRepository.findByUsername("username")).thenReturn(java.util.Optional.empty());
-
-        String result = registrationController.registerUser(user, model);
+        String result = registrationController.registerUser(user, model, request);
 
         assertEquals("redirect:/auth/register?success", result);
         verify(authenticationService).registerUser("username", "password", "email", null);
@@ -68,12 +73,12 @@ public class RegistrationControllerTests {
         Model model = mock(Model.class);
         RegistrationDTO user = new RegistrationDTO("username", "password", "email");
 
-        when(userRepository.findByUsername("username")).thenReturn(java.util.Optional.of(new ApplicationUser()));
+        when(authenticationService.registerUser("username", "password", "email", null))
+                .thenThrow(new UserAlreadyExistsException("UserName Already Taken,"));
 
-        String result = registrationController.registerUser(user, model);
+        String result = registrationController.registerUser(user, model, request);
 
         assertEquals("redirect:/auth/register?userpresent", result);
-        verify(authenticationService, never()).registerUser(anyString(), anyString(), anyString(), any());
 
     }
 }
@@ -0,0 +1,53 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.shivu.userapplication.exception.UserAlreadyExistsException;
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.service.AuthenticationService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+public class RegistrationTests {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testRegistrationIsOneInsert() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // warms the department dictionary and the id sequence
+        authenticationService.registerUser("reg1", "password", "reg1@example.com", "HR");
+        statistics.clear();
+
+        ApplicationUser user = authenticationService.registerUser("reg2", "password", "reg2@example.com", "HR");
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("HR", user.getDepartment().getDepartmentName());
+        assertEquals(ApplicationUser.UserStatus.PENDING, user.getStatus());
+    }
+
+    @Test
+    public void testDuplicatesAreReportedByConstraint() {
+        authenticationService.registerUser("reg3", "password", "reg3@example.com", null);
+
+        UserAlreadyExistsException username = assertThrows(UserAlreadyExistsException.class,
+                () -> authenticationService.registerUser("reg3", "password", "other@example.com", null));
+        UserAlreadyExistsException email = assertThrows(UserAlreadyExistsException.class,
+                () -> authenticationService.registerUser("reg4", "password", "reg3@example.com", null));
+
+        assertEquals("UserName Already Taken,", username.getMessage());
+        assertEquals("Email ALready Taken.", email.getMessage());
+    }
+}
@@ -0,0 +1,95 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import com.shivu.userapplication.config.RequiresRoles;
+import com.shivu.userapplication.config.RoleMaskAuthorizationManager;
+import com.shivu.userapplication.model.RoleBit;
+
+/*
+ * Per-request cost of hasAnyRole('HR','PAYROLL') through SpEL versus the rmask
+ * check, with and without turning the roles claim into authorities first.
+ * Run with: mvn test -Dtest=RoleCheckBenchmarkTests -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class RoleCheckBenchmarkTests {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    public static class Endpoints {
+        @PreAuthorize("hasAnyRole('HR','PAYROLL')")
+        public String spel() {
+            return "timecards";
+        }
+
+        @RequiresRoles({ RoleBit.HR, RoleBit.PAYROLL })
+        public String mask() {
+            return "timecards";
+        }
+    }
+
+    private static double nanosPerOp(BooleanSupplier check) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertTrue(check.getAsBoolean());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (!check.getAsBoolean()) {
+                throw new AssertionError();
+            }
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+
+    @Test
+    public void benchmarkRoleChecks() throws Exception {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("hr1")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .claim("roles", "HR GENERAL")
+                .claim(RoleMaskAuthorizationManager.CLAIM, RoleBit.maskOf(RoleBit.HR, RoleBit.GENERAL))
+                .build();
+        JwtGrantedAuthoritiesConverter converter = new JwtGrantedAuthoritiesConverter();
+        converter.setAuthoritiesClaimName("roles");
+        converter.setAuthorityPrefix("ROLE_");
+        Collection<GrantedAuthority> authorities = converter.convert(jwt);
+        JwtAuthenticationToken auth = new JwtAuthenticationToken(jwt, authorities);
+
+        Endpoints target = new Endpoints();
+        Method spelMethod = Endpoints.class.getMethod("spel");
+        Method maskMethod = Endpoints.class.getMethod("mask");
+        SimpleMethodInvocation spelInvocation = new SimpleMethodInvocation(target, spelMethod);
+        SimpleMethodInvocation maskInvocation = new SimpleMethodInvocation(target, maskMethod);
+        PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+        RoleMaskAuthorizationManager mask = new RoleMaskAuthorizationManager();
+
+        double spelOnly = nanosPerOp(() -> spel.check(() -> auth, spelInvocation).isGranted());
+        double maskOnly = nanosPerOp(() -> mask.check(() -> auth, maskInvocation).isGranted());
+        double spelWithClaim = nanosPerOp(() -> spel.check(
+                () -> new JwtAuthenticationToken(jwt, converter.convert(jwt)), spelInvocation).isGranted());
+        double maskWithClaim = nanosPerOp(() -> mask.check(
+                () -> new JwtAuthenticationToken(jwt, List.of()), maskInvocation).isGranted());
+
+        System.out.printf("decision only        SpEL %8.1f ns   mask %8.1f ns%n", spelOnly, maskOnly);
+        System.out.printf("claim -> decision    SpEL %8.1f ns   mask %8.1f ns%n", spelWithClaim, maskWithClaim);
+    }
+}
@@ -0,0 +1,54 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.shivu.userapplication.config.RoleMaskAuthorizationManager;
+import com.shivu.userapplication.model.RoleBit;
+import com.shivu.userapplication.service.AuthenticationService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RoleMaskTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    private ResultActions get(String path, String jwt) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get(path).header("Authorization", "Bearer " + jwt));
+    }
+
+    @Test
+    public void testTokenCarriesRoleMask() {
+        String jwt = authenticationService.loginUser("hr1", "password").getJwt();
+
+        long mask = ((Number) jwtDecoder.decode(jwt).getClaim(RoleMaskAuthorizationManager.CLAIM)).longValue();
+
+        assertEquals(RoleBit.maskOf(RoleBit.HR, RoleBit.GENERAL), mask);
+    }
+
+    @Test
+    public void testEndpointsCheckMask() throws Exception {
+        String jwt = authenticationService.loginUser("hr1", "password").getJwt();
+
+        get("/hr", jwt).andExpect(MockMvcResultMatchers.status().isOk());
+        get("/timecards", jwt).andExpect(MockMvcResultMatchers.status().isOk());
+        get("/getemailrecords", jwt).andExpect(MockMvcResultMatchers.status().isOk());
+        get("/finance", jwt).andExpect(MockMvcResultMatchers.status().is(403));
+    }
+}
@@ -0,0 +1,95 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.shivu.userapplication.model.ApplicationUser;
+import com.shivu.userapplication.model.ApplicationUser.UserStatus;
+import com.shivu.userapplication.repository.SeedVersionRepository;
+import com.shivu.userapplication.repository.UserRepository;
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.PrincipalCache;
+import com.shivu.userapplication.service.RBACService;
+import com.shivu.userapplication.service.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+public class SeedTests {
+
+    @Autowired
+    private RBACService rbacService;
+
+    @Autowired
+    private SeedVersionRepository seedVersionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String passwordHash(String username) {
+        return jdbcTemplate.queryForObject("SELECT password FROM users WHERE username = ?", String.class, username);
+    }
+
+    @Test
+    public void testSeededDatabaseIsSkippedWithOneQuery() {
+        assertTrue(seedVersionRepository.existsById("rbac"));
+        String hash = passwordHash("hr1");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertFalse(rbacService.seed());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(hash, passwordHash("hr1"));
+    }
+
+    @Test
+    public void testReseedCreatesOnlyWhatIsMissing() {
+        String hash = passwordHash("hr1");
+        userRepository.delete(userRepository.findWithAuthoritiesByUsername("it2").orElseThrow());
+        jdbcTemplate.update("UPDATE users SET status = 'PENDING' WHERE username = 'it1'");
+        principalCache.invalidate("it1");
+        assertFalse(userService.loadUserByUsername("it1").isEnabled());
+        authenticationService.registerUser("seedadmin", "secret", "seedadmin@example.com", "ADMIN");
+        jdbcTemplate.update("INSERT INTO user_role_junction (user_id, role_id) SELECT u.user_id, r.role_id"
+                + " FROM users u, roles r WHERE u.username = 'seedadmin' AND r.authority = 'ADMIN'");
+        seedVersionRepository.deleteById("rbac");
+
+        assertTrue(rbacService.seed());
+
+        ApplicationUser it2 = userRepository.findWithAuthoritiesByUsername("it2").orElseThrow();
+        assertEquals(UserStatus.ACTIVE, it2.getStatus());
+        assertEquals(2, it2.getAuthorities().size());
+        assertEquals(UserStatus.ACTIVE, userRepository.findByUsername("it1").orElseThrow().getStatus());
+        // a pending user holding the ADMIN role is activated
+        assertEquals(UserStatus.ACTIVE, userRepository.findByUsername("seedadmin").orElseThrow().getStatus());
+        // the cached PENDING principal went with the seed
+        assertTrue(userService.loadUserByUsername("it1").isEnabled());
+        // existing users keep their password hash
+        assertEquals(hash, passwordHash("hr1"));
+        assertTrue(seedVersionRepository.existsById("rbac"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.shivu.userapplication.utils.TokenBucketLimiter;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TokenBucketLimiterTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testBurstThenRefill() {
+        AtomicLong now = new AtomicLong(0);
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofSeconds(30), now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("alice"));
+        }
+        // one token comes back every 10 seconds
+        assertEquals(10 * SECOND, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("bob"));
+
+        now.set(10 * SECOND);
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("alice") > 0);
+    }
+
+    @Test
+    public void testSweepDropsOnlyFullBuckets() {
+        AtomicLong now = new AtomicLong(0);
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, Duration.ofSeconds(20), now::get);
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("bob");
+        limiter.tryAcquire("bob");
+
+        now.set(10 * SECOND);
+        assertEquals(1, limiter.sweep());
+        assertEquals(1, limiter.stats().get("keys"));
+
+        now.set(20 * SECOND);
+        assertEquals(1, limiter.sweep());
+        assertEquals(0, limiter.stats().get("keys"));
+    }
+
+    @Test
+    public void testPeekTakesNothing() {
+        AtomicLong now = new AtomicLong();
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, Duration.ofSeconds(10), now::get);
+        assertEquals(0, limiter.peek("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(10 * SECOND, limiter.peek("a"));
+        assertEquals(10 * SECOND, limiter.peek("a"));
+        now.addAndGet(10 * SECOND);
+        assertEquals(0, limiter.peek("a"));
+    }
+
+    @Test
+    public void testSuccessfulLoginsDoNotLockTheAccount() throws Exception {
+        String body = "{\"username\":\"finance1\",\"password\":\"password\"}";
+        for (int i = 0; i < 6; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/auth/loginb")
+                    .contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+    }
+
+    @Test
+    public void testLoginIsLimitedPerUsername() throws Exception {
+        String body = "{\"username\":\"ratelimited\",\"password\":\"wrong\"}";
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/auth/loginb")
+                    .contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(MockMvcResultMatchers.status().isNotFound());
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/loginb")
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().exists("Retry-After"));
+    }
+}
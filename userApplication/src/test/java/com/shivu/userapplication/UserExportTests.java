@@ -0,0 +1,87 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class UserExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private MvcResult export(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started))
+                .andExpect(MockMvcResultMatchers.status().isOk()).andReturn();
+    }
+
+    @Test
+    public void testCsvExportHasOneLinePerUser() throws Exception {
+        MvcResult result = export(MockMvcRequestBuilders.get("/admin/export").param("status", "ACTIVE"));
+
+        List<String> lines = Arrays.asList(result.getResponse().getContentAsString().split("\n"));
+        assertEquals("username,email,department,status,roles", lines.get(0));
+        List<String> hr1 = lines.stream().filter(l -> l.startsWith("hr1,")).toList();
+        assertEquals(1, hr1.size());
+        String[] columns = hr1.get(0).split(",");
+        assertEquals("HR", columns[2]);
+        assertEquals("ACTIVE", columns[3]);
+        assertTrue(Arrays.asList(columns[4].split(";")).containsAll(List.of("HR", "GENERAL")), hr1.get(0));
+    }
+
+    @Test
+    public void testGzippedNdjsonExport() throws Exception {
+        MvcResult result = export(MockMvcRequestBuilders.get("/admin/export").param("format", "ndjson")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+        assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+
+        byte[] body;
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            body = in.readAllBytes();
+        }
+        String ndjson = new String(body, StandardCharsets.UTF_8);
+        assertTrue(ndjson.endsWith("\n"));
+        ObjectMapper objectMapper = new ObjectMapper();
+        boolean sawHr1 = false;
+        for (String line : ndjson.split("\n")) {
+            JsonNode user = objectMapper.readTree(line);
+            assertTrue(user.get("password") == null);
+            if (user.get("username").asText().equals("hr1")) {
+                sawHr1 = true;
+                assertEquals(2, user.get("roles").size());
+            }
+        }
+        assertTrue(sawHr1);
+    }
+
+    @Test
+    public void testUnknownFormatIsRejected() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/admin/export").param("format", "xml"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
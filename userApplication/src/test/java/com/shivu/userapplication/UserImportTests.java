@@ -0,0 +1,90 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.shivu.userapplication.model.LoginResponseDTO;
+import com.shivu.userapplication.service.AuthenticationService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class UserImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ResultActions post(String contentType, String body) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/admin/import").contentType(contentType).content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void testCsvImportReportsRowErrors() throws Exception {
+        String csv = """
+                username,password,email,department,roles
+                imp1,secret1,imp1@example.com,FINANCE,FINANCE;GENERAL
+                imp2,"pa,ss",imp2@example.com,SALES,SALES
+                hr1,password,dup@example.com,HR,HR
+                imp3,,imp3@example.com,HR,HR
+                imp4,secret,imp4@example.com,HR,NOSUCHROLE
+                imp1,secret,other@example.com,,
+                """;
+
+        post("text/csv", csv)
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rows").value(6))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].error").value("password is required"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].error").value("Duplicate username in file"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[2].error").value("Username already exists"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[3].error").value("Unknown role NOSUCHROLE"));
+
+        // imported users are active straight away
+        LoginResponseDTO login = authenticationService.loginUser("imp2", "pa,ss");
+        assertEquals("SALES", login.getUser().getDepartmentName());
+        assertEquals(1, login.getUser().getAuthorities().size());
+    }
+
+    @Test
+    public void testNdjsonImportIsBatched() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            ndjson.append("{\"username\":\"batch").append(i).append("\",\"password\":\"secret\",")
+                    .append("\"email\":\"batch").append(i).append("@example.com\",\"department\":\"IT\",")
+                    .append("\"roles\":[\"IT\",\"GENERAL\"]}\n");
+        }
+        ndjson.append("not json\n");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        post("application/x-ndjson", ndjson.toString())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(20))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(1));
+
+        // 20 users and 40 role links; without batching this is 60+ statements
+        assertEquals(20, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 10, "statements: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,140 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivu.userapplication.service.PasswordResetService;
+import com.shivu.userapplication.service.RefreshTokenService;
+
+// empties the directory, so the context is not handed on to other test classes
+@SpringBootTest(properties = "userapp.purge.chunk-size=7")
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+@DirtiesContext
+public class UserPurgeTests {
+
+    private static final int FIRST_ID = 20_000_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @SpyBean
+    private RefreshTokenService refreshTokenService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private void insertUsers(int count) {
+        insertUsers(FIRST_ID, count);
+    }
+
+    private void insertUsers(int firstId, int count) {
+        Integer roleId = jdbcTemplate.queryForObject("SELECT role_id FROM roles WHERE authority = 'GENERAL'",
+                Integer.class);
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int id = firstId + i;
+            users.add(new Object[] { id, "purge" + id, "hash", "purge" + id + "@example.com", "ACTIVE" });
+            links.add(new Object[] { id, roleId });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_id, username, password, email, status) "
+                + "VALUES (?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO user_role_junction (user_id, role_id) VALUES (?, ?)", links);
+    }
+
+    private JsonNode json(String body) throws Exception {
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode awaitFinished() throws Exception {
+        for (int i = 0; i < 600; i++) {
+            JsonNode status = json(mockMvc.perform(MockMvcRequestBuilders.get("/admin/deleteall/status"))
+                    .andExpect(MockMvcResultMatchers.status().isOk()).andReturn().getResponse().getContentAsString());
+            if (!status.get("state").asText().equals("RUNNING")) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("purge did not finish");
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    @Test
+    public void testErrorDoesNotLeaveJobRunning() throws Exception {
+        insertUsers(FIRST_ID + 100_000, 10);
+        doThrow(new StackOverflowError()).when(refreshTokenService).revokeAll(anyCollection());
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.delete("/admin/deleteall"))
+                    .andExpect(MockMvcResultMatchers.status().isAccepted());
+            assertEquals("FAILED", awaitFinished().get("state").asText());
+        } finally {
+            reset(refreshTokenService);
+        }
+
+        // the failed job no longer blocks a new one
+        mockMvc.perform(MockMvcRequestBuilders.delete("/admin/deleteall"))
+                .andExpect(MockMvcResultMatchers.status().isAccepted());
+        assertEquals("COMPLETED", awaitFinished().get("state").asText());
+    }
+
+    @Test
+    public void testPurgeCanBeCancelledAndRestarted() throws Exception {
+        insertUsers(2000);
+        passwordResetService.issue("purge" + (FIRST_ID + 1999) + "@example.com");
+        long total = count("users");
+
+        JsonNode job = json(mockMvc.perform(MockMvcRequestBuilders.delete("/admin/deleteall"))
+                .andExpect(MockMvcResultMatchers.status().isAccepted()).andReturn().getResponse()
+                .getContentAsString());
+        assertEquals(total, job.get("total").asLong());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/admin/deleteall"))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+        mockMvc.perform(MockMvcRequestBuilders.post("/admin/deleteall/cancel"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        JsonNode cancelled = awaitFinished();
+        assertEquals("CANCELLED", cancelled.get("state").asText());
+        assertTrue(cancelled.get("deleted").asLong() < total);
+        assertEquals(total - cancelled.get("deleted").asLong(), count("users"));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/admin/deleteall"))
+                .andExpect(MockMvcResultMatchers.status().isAccepted());
+        JsonNode completed = awaitFinished();
+        assertEquals("COMPLETED", completed.get("state").asText());
+        assertEquals(0, count("users"));
+        assertEquals(0, count("user_role_junction"));
+        assertEquals(0, count("password_reset_tokens"));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/admin/deleteall"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
@@ -0,0 +1,87 @@
+package com.shivu.userapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.shivu.userapplication.service.AuthenticationService;
+import com.shivu.userapplication.service.PrincipalCache;
+import com.shivu.userapplication.service.VerifiedTokenCache;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class VerifiedTokenCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    private long misses() {
+        return (Long) tokenCache.stats().get("misses");
+    }
+
+    private long lookups() {
+        return (Long) tokenCache.stats().get("hits") + misses();
+    }
+
+    private void callHr(String jwt) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/hr").header("Authorization", "Bearer " + jwt))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("HR level Access"));
+    }
+
+    @Test
+    public void testRepeatedTokenIsVerifiedOnce() throws Exception {
+        String jwt = authenticationService.loginUser("hr2", "password").getJwt();
+        long before = misses();
+
+        callHr(jwt);
+        callHr(jwt);
+
+        // only the first request runs the signature check
+        assertEquals(before + 1, misses());
+    }
+
+    @Test
+    public void testOneLookupPerRequest() throws Exception {
+        String jwt = authenticationService.loginUser("hr2", "password").getJwt();
+        callHr(jwt);
+        long before = lookups();
+
+        callHr(jwt);
+
+        // the authorities come off the decoded token, not from a second lookup
+        assertEquals(before + 1, lookups());
+    }
+
+    @Test
+    public void testUserChangeRevokesTheirEarlierTokens() throws Exception {
+        String jwt = authenticationService.loginUser("hr1", "password").getJwt();
+        String other = authenticationService.loginUser("hr2", "password").getJwt();
+        callHr(jwt);
+        // iat has second precision; the change must fall in a later second than the login
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000 + 50);
+
+        principalCache.invalidate("hr1");
+
+        // rejected although still cached and correctly signed
+        mockMvc.perform(MockMvcRequestBuilders.get("/hr").header("Authorization", "Bearer " + jwt))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        callHr(other);
+        callHr(authenticationService.loginUser("hr1", "password").getJwt());
+    }
+}